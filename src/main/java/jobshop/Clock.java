@@ -0,0 +1,99 @@
+package jobshop;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Time source of the deadlines of the solvers : wall-clock time by default, or the CPU time of the threads.
+ *
+ * With CPU time, the time of a thread only advances while it runs, so that a loaded machine (or solvers run in
+ * parallel) does not shorten the search. Each measure starts with `restart` : from then on, `millis()` returns, on
+ * each thread, the wall-clock time of the restart plus the CPU time consumed by the thread since its first call of
+ * the measure. A deadline computed as `Clock.millis() + budget` thus gives `budget` milliseconds of CPU time to each
+ * thread of the solver (the threads of a multi-threaded solver each have their own budget).
+ */
+public final class Clock {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private static volatile boolean cpuTime = false;
+    /** Wall-clock time (ms) and monotonic time (ns) of the start of the current measure */
+    private static volatile long originMillis = System.currentTimeMillis();
+    private static volatile long originNanos = System.nanoTime();
+    /** Number of the current measure : the CPU time of a thread is counted from its first call in the measure */
+    private static volatile int measure = 0;
+
+    /** CPU time of a thread in the current measure : when it was first seen and when it was last seen (ns) */
+    private static final class ThreadTime {
+        int measure = -1;
+        long first;
+        volatile long last;
+    }
+    private static final ThreadLocal<ThreadTime> threadTime = ThreadLocal.withInitial(ThreadTime::new);
+    /** Threads seen during the current measure */
+    private static final List<ThreadTime> seen = new CopyOnWriteArrayList<>();
+
+    private Clock() {}
+
+    /** Selects the CPU time of the threads (true) or the wall-clock time (false).
+     * @throws UnsupportedOperationException if the JVM cannot measure the CPU time of threads */
+    public static void useCpuTime(boolean enabled) {
+        if(enabled) {
+            if(!threads.isCurrentThreadCpuTimeSupported())
+                throw new UnsupportedOperationException("The JVM does not measure the CPU time of threads");
+            if(!threads.isThreadCpuTimeEnabled())
+                threads.setThreadCpuTimeEnabled(true);
+        }
+        cpuTime = enabled;
+        restart();
+    }
+
+    public static boolean isCpuTime() {
+        return cpuTime;
+    }
+
+    /** Starts a new measure (see `elapsedNanos`), from the calling thread. */
+    public static synchronized void restart() {
+        seen.clear();
+        measure++;
+        originMillis = System.currentTimeMillis();
+        originNanos = System.nanoTime();
+        if(cpuTime)
+            update();
+    }
+
+    /** Current time in milliseconds, to be compared with the deadlines. */
+    public static long millis() {
+        if(!cpuTime)
+            return System.currentTimeMillis();
+        ThreadTime t = update();
+        return originMillis + (t.last - t.first) / 1000000;
+    }
+
+    /** Time elapsed since the start of the measure, in nanoseconds : the wall-clock time, or the CPU time of all the
+     * threads of the measure. The CPU time of a thread is counted up to the last time it read the clock, that is up to
+     * its last check of the deadline. */
+    public static long elapsedNanos() {
+        if(!cpuTime)
+            return System.nanoTime() - originNanos;
+        update();
+        long total = 0;
+        for(ThreadTime t : seen)
+            total += t.last - t.first;
+        return total;
+    }
+
+    /** Records the current CPU time of the calling thread. */
+    private static ThreadTime update() {
+        ThreadTime t = threadTime.get();
+        long now = threads.getCurrentThreadCpuTime();
+        if(t.measure != measure) {
+            t.measure = measure;
+            t.first = now;
+            seen.add(t);
+        }
+        t.last = now;
+        return t;
+    }
+}
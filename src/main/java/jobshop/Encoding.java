@@ -1,7 +1,16 @@
 package jobshop;
 
+import jobshop.encodings.DecodeBuffer;
+
 public abstract class Encoding {
 
+    /** Value returned by `makespan` when the encoding does not correspond to any schedule (e.g. a cyclic resource order). */
+    public static final int INFEASIBLE = Integer.MAX_VALUE;
+
+    /** Value returned by `makespan(DecodeBuffer, int)` when decoding was stopped because the makespan
+     * could not be lower than the cutoff. */
+    public static final int CUT_OFF = Integer.MAX_VALUE - 1;
+
     public final Instance instance;
 
     public Encoding(Instance instance) {
@@ -9,4 +18,24 @@ public abstract class Encoding {
     }
 
     public abstract Schedule toSchedule();
+
+    /** Returns the makespan of the schedule of this encoding (the same as `toSchedule().makespan()`),
+     * or INFEASIBLE if there is no such schedule.
+     * Decoding only uses the arrays of the given buffer and does not allocate any memory,
+     * which makes it the preferred way to evaluate many solutions (sampling, neighbor scoring). */
+    public int makespan(DecodeBuffer buffer) {
+        return makespan(buffer, INFEASIBLE);
+    }
+
+    /** Same as `makespan(DecodeBuffer)`, but decoding stops as soon as it is proved that the makespan is not lower
+     * than `cutoff` (typically the makespan of the solution to beat), in which case CUT_OFF is returned.
+     * A task ending at time `end` proves it when `end` plus the remaining work of its job, or plus the remaining load
+     * of its machine, reaches the cutoff.
+     * An infeasible encoding may return either INFEASIBLE or CUT_OFF : both are greater than any actual makespan. */
+    public abstract int makespan(DecodeBuffer buffer, int cutoff);
+
+    /** Same as `makespan(DecodeBuffer)`, with the buffer of the current thread. */
+    public int makespan() {
+        return makespan(DecodeBuffer.ofThread(instance));
+    }
 }
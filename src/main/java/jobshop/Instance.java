@@ -5,6 +5,7 @@ import jobshop.encodings.Task;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Scanner;
 import java.util.stream.Collectors;
@@ -14,47 +15,285 @@ public class Instance {
     /** Number of jobs in the instance */
     public final int numJobs;
 
-    /** Number of tasks per job */
+    /** Number of tasks per job. When jobs do not all visit every machine, this is the number of tasks of the longest
+     * job, and `numTasks(job)` gives the number of tasks of each job. */
     public final int numTasks;
 
-    /** Number of machines, assumed to be same as number of tasks. */
+    /** Number of machines, the same as the number of tasks when every job visits every machine. */
     public final int numMachines;
 
-    private final int[][] durations;
-    private final int[][] machines;
+    /** Total number of tasks of the jobs. */
+    public final int numOperations;
+
+    // Routes of the jobs, in compressed sparse row form : the tasks of job j are the operations
+    // jobStart[j] ... jobStart[j+1]-1, in order, and the arrays below are indexed by operation.
+    // When every job visits every machine, the operation of (job, task) is job * numTasks + task.
+    private final int[] jobStart;
+    private final int[] jobs;
+    private final int[] machines;
+    private final int[] durations;
 
     public int duration(int job, int task) {
-        return durations[job][task];
+        return durations[jobStart[job] + task];
     }
     public int duration(Task t) {
         return duration(t.job, t.task);
     }
     public int machine(int job, int task) {
-        return machines[job][task];
+        return machines[jobStart[job] + task];
     }
     public int machine(Task t) {
         return this.machine(t.job, t.task);
     }
 
-    /** among the tasks of the given job, returns the task index that uses the given machine. */
+    /** Number of tasks of the job. */
+    public int numTasks(int job) {
+        return jobStart[job + 1] - jobStart[job];
+    }
+
+    /** Identifier of a task among all the tasks of the instance, between 0 and numOperations-1. The tasks of a job
+     * have consecutive identifiers. */
+    public int operation(int job, int task) {
+        return jobStart[job] + task;
+    }
+
+    /** Job of the operation. */
+    public int jobOf(int operation) {
+        return jobs[operation];
+    }
+
+    /** Index of the operation in its job. */
+    public int taskOf(int operation) {
+        return operation - jobStart[jobs[operation]];
+    }
+
+    public int machineOf(int operation) {
+        return machines[operation];
+    }
+
+    public int durationOf(int operation) {
+        return durations[operation];
+    }
+
+    /** True if every job visits every machine (the classical job-shop instances). */
+    public boolean isRectangular() {
+        return numOperations == numJobs * numMachines;
+    }
+
+    /** among the tasks of the given job, returns the task index that uses the given machine.
+     * Takes constant time on dense instances, and logarithmic time in the number of operations of the machine on
+     * sparse ones (see Derived.taskOnMachine). */
     public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
+        Derived d = derived();
+        if(d.taskOnMachine != null) {
+            int task = d.taskOnMachine[job * numMachines + wanted_machine];
+            if(task < 0)
+                throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+            return task;
+        }
+        // the operations of a machine are in the order of their jobs
+        int low = d.machineStart[wanted_machine];
+        int high = d.machineStart[wanted_machine + 1] - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int op = d.machineOperations[middle];
+            if(jobs[op] < job)
+                low = middle + 1;
+            else if(jobs[op] > job)
+                high = middle - 1;
+            else
+                return op - jobStart[job];
         }
         throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
     }
 
-    private Instance(int numJobs, int numTasks) {
-        this.numJobs = numJobs;
-        this.numTasks = numTasks;
-        this.numMachines = numTasks;
+    /** Total duration of the tasks of the job that precede the given task (the earliest start time of the task). */
+    public int jobPrefix(int job, int task) {
+        return derived().jobPrefix[jobStart[job] + task];
+    }
+
+    /** Total duration of the tasks of the job that follow the given task (the least time between the end of the task
+     * and the end of the schedule). */
+    public int jobSuffix(int job, int task) {
+        return derived().jobSuffix[jobStart[job] + task];
+    }
+
+    /** Total duration of the tasks of the job. */
+    public int jobLength(int job) {
+        return derived().jobLength[job];
+    }
+
+    /** Total duration of the tasks of the machine. */
+    public int machineLoad(int machine) {
+        return derived().machineLoad[machine];
+    }
+
+    /** Number of tasks processed by the machine. */
+    public int numOperationsOn(int machine) {
+        Derived d = derived();
+        return d.machineStart[machine + 1] - d.machineStart[machine];
+    }
+
+    /** The i-th task processed by the machine, in the order of the jobs, as an operation (see `operation`). */
+    public int operationOn(int machine, int i) {
+        Derived d = derived();
+        return d.machineOperations[d.machineStart[machine] + i];
+    }
+
+    /** Data derived from the tasks of the instance, computed once on first use. */
+    private volatile Derived derived;
 
-        durations = new int[numJobs][numTasks];
-        machines = new int[numJobs][numTasks];
+    private Derived derived() {
+        Derived d = derived;
+        if(d == null) {
+            synchronized (this) {
+                d = derived;
+                if(d == null) {
+                    d = new Derived(this);
+                    derived = d;
+                }
+            }
+        }
+        return d;
+    }
+
+    /** Quantities used by many solvers and lower bounds, as flat arrays. They are never modified once computed and
+     * can be read by any thread. Their size is linear in the number of operations. */
+    private static final class Derived {
+        /** operation -> total duration of the previous tasks of its job */
+        final int[] jobPrefix;
+        /** operation -> total duration of the next tasks of its job */
+        final int[] jobSuffix;
+        /** job -> total duration of its tasks */
+        final int[] jobLength;
+        /** machine -> total duration of its tasks */
+        final int[] machineLoad;
+        /** Operations of each machine, in compressed sparse row form : those of machine m are
+         * machineOperations[machineStart[m]] ... machineOperations[machineStart[m+1]-1], in the order of their jobs. */
+        final int[] machineStart;
+        final int[] machineOperations;
+        /** (job * numMachines + machine) -> task of the job on the machine, -1 if none. Only built when it is at most
+         * twice as large as the operations (always on rectangular instances), null otherwise : sparse instances search
+         * the operations of the machine instead. */
+        final int[] taskOnMachine;
+
+        Derived(Instance instance) {
+            int numOps = instance.numOperations;
+            jobPrefix = new int[numOps];
+            jobSuffix = new int[numOps];
+            jobLength = new int[instance.numJobs];
+            machineLoad = new int[instance.numMachines];
+            machineStart = new int[instance.numMachines + 1];
+            machineOperations = new int[numOps];
+            for(int o = 0 ; o < numOps ; o++) {
+                machineStart[instance.machines[o] + 1]++;
+            }
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                machineStart[m + 1] += machineStart[m];
+            }
+            int[] filled = new int[instance.numMachines];
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                int prefix = 0;
+                for(int o = instance.jobStart[j] ; o < instance.jobStart[j + 1] ; o++) {
+                    jobPrefix[o] = prefix;
+                    prefix += instance.durations[o];
+                    int m = instance.machines[o];
+                    machineLoad[m] += instance.durations[o];
+                    machineOperations[machineStart[m] + filled[m]++] = o;
+                }
+                jobLength[j] = prefix;
+                for(int o = instance.jobStart[j] ; o < instance.jobStart[j + 1] ; o++) {
+                    jobSuffix[o] = prefix - jobPrefix[o] - instance.durations[o];
+                }
+            }
+            long cells = (long) instance.numJobs * instance.numMachines;
+            if(cells <= 2L * numOps) {
+                taskOnMachine = new int[(int) cells];
+                Arrays.fill(taskOnMachine, -1);
+                for(int o = 0 ; o < numOps ; o++) {
+                    taskOnMachine[instance.jobs[o] * instance.numMachines + instance.machines[o]] = o - instance.jobStart[instance.jobs[o]];
+                }
+            } else {
+                taskOnMachine = null;
+            }
+        }
     }
 
-    /** Parses a instance from a file. */
+    private Instance(int numMachines, int[] jobStart, int[] machines, int[] durations) {
+        this.numJobs = jobStart.length - 1;
+        this.numMachines = numMachines;
+        this.numOperations = machines.length;
+        int longest = 0;
+        for(int j = 0 ; j < numJobs ; j++) {
+            longest = Math.max(longest, jobStart[j + 1] - jobStart[j]);
+        }
+        this.numTasks = longest;
+        this.jobStart = jobStart;
+        this.machines = machines;
+        this.durations = durations;
+        this.jobs = new int[numOperations];
+        for(int j = 0 ; j < numJobs ; j++) {
+            Arrays.fill(jobs, jobStart[j], jobStart[j + 1], j);
+        }
+    }
+
+    /** Builds an instance from the machine and the duration of each task : machines[j][t] and durations[j][t]
+     * are those of the t^th task of the j^th job. Every job must visit every machine exactly once.
+     * The arrays are copied. */
+    public static Instance of(int[][] machines, int[][] durations) {
+        int numJobs = machines.length;
+        int numTasks = numJobs == 0 ? 0 : machines[0].length;
+        for(int job = 0 ; job < numJobs ; job++) {
+            if(machines[job].length != numTasks || durations[job].length != numTasks)
+                throw new IllegalArgumentException("Job " + job + " does not have " + numTasks + " tasks");
+        }
+        return of(numTasks, machines, durations);
+    }
+
+    /** Builds an instance whose jobs may have different numbers of tasks : machines[j][t] and durations[j][t] are
+     * those of the t^th task of the j^th job, whose length is the number of tasks of the job. A job visits each of the
+     * `numMachines` machines at most once, and may skip some of them.
+     * The arrays are copied. */
+    public static Instance of(int numMachines, int[][] machines, int[][] durations) {
+        int numJobs = machines.length;
+        int[] jobStart = new int[numJobs + 1];
+        for(int job = 0 ; job < numJobs ; job++) {
+            if(durations[job].length != machines[job].length)
+                throw new IllegalArgumentException("Job " + job + " does not have as many durations as machines");
+            jobStart[job + 1] = jobStart[job] + machines[job].length;
+        }
+        int[] opMachines = new int[jobStart[numJobs]];
+        int[] opDurations = new int[jobStart[numJobs]];
+        for(int job = 0 ; job < numJobs ; job++) {
+            System.arraycopy(machines[job], 0, opMachines, jobStart[job], machines[job].length);
+            System.arraycopy(durations[job], 0, opDurations, jobStart[job], durations[job].length);
+        }
+        return new Instance(numMachines, jobStart, checkRoutes(numMachines, jobStart, opMachines, opDurations), opDurations);
+    }
+
+    /** Checks that each job visits each machine at most once (exactly once if `numMachines` tasks), with
+     * non negative durations, and returns the machines. */
+    private static int[] checkRoutes(int numMachines, int[] jobStart, int[] machines, int[] durations) {
+        boolean[] visited = new boolean[numMachines];
+        for(int job = 0 ; job < jobStart.length - 1 ; job++) {
+            Arrays.fill(visited, false);
+            for(int o = jobStart[job] ; o < jobStart[job + 1] ; o++) {
+                int machine = machines[o];
+                if(machine < 0 || machine >= numMachines || visited[machine])
+                    throw new IllegalArgumentException("Job " + job + " does not visit every machine at most once");
+                if(durations[o] < 0)
+                    throw new IllegalArgumentException("Negative duration for task " + (o - jobStart[job]) + " of job " + job);
+                visited[machine] = true;
+            }
+        }
+        return machines;
+    }
+
+    /** Parses a instance from a file.
+     *
+     * The first line gives the number of jobs and the number of machines, and each following line gives the tasks of
+     * a job as pairs (machine, duration). A job may have less tasks than there are machines, in which case it skips
+     * the machines it does not visit. */
     public static Instance fromFile(Path path) throws IOException {
         Iterator<String> lines = Files.readAllLines(path).stream()
                 .filter(l -> !l.startsWith("#"))
@@ -63,17 +302,29 @@ public class Instance {
 
         Scanner header = new Scanner(lines.next());
         int num_jobs = header.nextInt();
-        int num_tasks = header.nextInt();
-        Instance pb = new Instance(num_jobs, num_tasks);
+        int num_machines = header.nextInt();
 
+        int[] jobStart = new int[num_jobs + 1];
+        int[] machines = new int[num_jobs * num_machines];
+        int[] durations = new int[num_jobs * num_machines];
         for(int job = 0 ; job<num_jobs ; job++) {
             Scanner line = new Scanner(lines.next());
-            for(int task = 0 ; task < num_tasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
+            int o = jobStart[job];
+            while(line.hasNextInt()) {
+                if(o - jobStart[job] == num_machines)
+                    throw new IOException("Job " + job + " of " + path + " has more tasks than machines");
+                machines[o] = line.nextInt();
+                durations[o] = line.nextInt();
+                o++;
             }
+            jobStart[job + 1] = o;
+        }
+        int numOps = jobStart[num_jobs];
+        if(numOps < machines.length) {
+            machines = Arrays.copyOf(machines, numOps);
+            durations = Arrays.copyOf(durations, numOps);
         }
 
-        return pb;
+        return new Instance(num_machines, jobStart, machines, durations);
     }
 }
@@ -0,0 +1,70 @@
+package jobshop;
+
+import jobshop.solvers.OneMachine;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/** Lower bounds of the makespan of an instance.
+ *
+ * The bound is the maximum of :
+ *  - the job bound : duration of the longest job,
+ *  - the machine bound : total load of the most loaded machine,
+ *  - the one-machine bound : for each machine, the optimal preemptive schedule of its operations where the head of an
+ *    operation is the duration of the previous tasks of its job and its tail the duration of the next ones.
+ *
+ * A solution whose makespan equals the lower bound is optimal. The bound of an instance is computed once and cached.
+ */
+public class LowerBound {
+
+    private static final Map<Instance, Integer> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** Returns the lower bound of the given instance. */
+    public static int of(Instance instance) {
+        return cache.computeIfAbsent(instance, LowerBound::compute);
+    }
+
+    /** Longest job of the instance */
+    public static int jobBound(Instance instance) {
+        int bound = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            bound = Math.max(bound, instance.jobLength(j));
+        }
+        return bound;
+    }
+
+    /** Load of the most loaded machine */
+    public static int machineBound(Instance instance) {
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            bound = Math.max(bound, instance.machineLoad(m));
+        }
+        return bound;
+    }
+
+    /** Best one-machine preemptive bound, with heads and tails given by the jobs */
+    public static int oneMachineBound(Instance instance) {
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int n = instance.numOperationsOn(m);
+            int[] r = new int[n];
+            int[] p = new int[n];
+            int[] q = new int[n];
+            for(int i = 0 ; i < n ; i++) {
+                int op = instance.operationOn(m, i);
+                int j = instance.jobOf(op);
+                int t = instance.taskOf(op);
+                r[i] = instance.jobPrefix(j, t);
+                p[i] = instance.duration(j, t);
+                q[i] = instance.jobSuffix(j, t);
+            }
+            bound = Math.max(bound, OneMachine.preemptiveBound(n, r, p, q));
+        }
+        return bound;
+    }
+
+    private static int compute(Instance instance) {
+        return Math.max(jobBound(instance), Math.max(machineBound(instance), oneMachineBound(instance)));
+    }
+}
@@ -1,16 +1,26 @@
 package jobshop;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 
+import jobshop.jfr.SolveEvent;
+import jobshop.neighborhoods.N1;
+import jobshop.neighborhoods.N5;
+import jobshop.neighborhoods.N6;
+import jobshop.results.ResultSink;
+import jobshop.results.RunRecord;
 import jobshop.solvers.*;
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.Namespace;
@@ -42,6 +52,22 @@ public class Main {
         solvers.put("taboo10", new TabooSolver(10,500));
         solvers.put("taboo20", new TabooSolver(20,500));
         solvers.put("taboo50", new TabooSolver(50,500));
+        solvers.put("geneticGOX", new GeneticSolver(GeneticSolver.Crossover.GOX, 100));
+        solvers.put("geneticPPX", new GeneticSolver(GeneticSolver.Crossover.PPX, 100));
+        solvers.put("shiftingBottleneck", new ShiftingBottleneckSolver());
+        solvers.put("descentSB", new DescentSolver(new ShiftingBottleneckSolver()));
+        solvers.put("taboo10SB", new TabooSolver(10, 500, new ShiftingBottleneckSolver()));
+        solvers.put("descentN1", new DescentSolver(new GreedySolver(Priority.EST_LRPT), new N1()));
+        solvers.put("descentN6", new DescentSolver(new GreedySolver(Priority.EST_LRPT), new N6()));
+        solvers.put("taboo10N1", new TabooSolver(10, 500, new GreedySolver(Priority.EST_LRPT), new N1()));
+        solvers.put("taboo10N6", new TabooSolver(10, 500, new GreedySolver(Priority.EST_LRPT), new N6()));
+        solvers.put("tabooElite", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 200));
+        solvers.put("tabooReactive", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 0, 0, true));
+        solvers.put("bnb", new BranchAndBoundSolver());
+        solvers.put("bnbParallel", new BranchAndBoundSolver(Runtime.getRuntime().availableProcessors()));
+        solvers.put("lns", new LnsSolver());
+        solvers.put("lnsTaboo", new LnsSolver(new TabooSolver(10, 500), 3, 100, 8, Runtime.getRuntime().availableProcessors(), 0));
+        solvers.put("portfolio", new PortfolioSolver());
     }
 
 
@@ -64,6 +90,35 @@ public class Main {
                 .required(true)
                 .help("Instance(s) to solve (space separated if more than one)");
 
+        parser.addArgument("--seeds")
+                .nargs("+")
+                .type(Long.class)
+                .setDefault(Collections.singletonList(0L))
+                .help("Seed(s) each solver is run with on each instance (the table shows the average runtime and the best makespan over the seeds)");
+        parser.addArgument("--results")
+                .help("File where each run is appended as soon as it completes, as CSV if its extension is .csv and as JSON Lines otherwise");
+
+        parser.addArgument("--cpu-time")
+                .action(Arguments.storeTrue())
+                .help("Measures and enforces the timeout in CPU time of the threads of the solvers, instead of wall-clock time");
+        parser.addArgument("--warmup")
+                .setDefault(0L)
+                .type(Long.class)
+                .help("Time in seconds during which each solver runs on the warmup instance before the measures, to let the JIT compile it");
+        parser.addArgument("--warmup-instance")
+                .setDefault("ft10")
+                .help("Instance solved during the warmup, whose results are discarded");
+
+        parser.addArgument("--checkpoint")
+                .help("Directory where the state of the taboo searches is periodically saved (one file per solver and instance)");
+        parser.addArgument("--checkpoint-period")
+                .setDefault(60L)
+                .type(Long.class)
+                .help("Time between two checkpoints, in seconds");
+        parser.addArgument("--resume")
+                .action(Arguments.storeTrue())
+                .help("Resumes the taboo searches from their checkpoint, if any (requires --checkpoint)");
+
         Namespace ns = null;
         try {
             ns = parser.parseArgs(args);
@@ -75,6 +130,23 @@ public class Main {
         PrintStream output = System.out;
 
         long solveTimeMs = ns.getLong("timeout") * 1000;
+        long warmupMs = ns.getLong("warmup") * 1000;
+        if(ns.getBoolean("cpu_time")) {
+            try {
+                Clock.useCpuTime(true);
+            } catch (UnsupportedOperationException e) {
+                System.err.println("ERROR: --cpu-time is not supported : " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        Path checkpoints = ns.getString("checkpoint") == null ? null : Paths.get(ns.getString("checkpoint"));
+        long checkpointPeriodMs = ns.getLong("checkpoint_period") * 1000;
+        boolean resume = ns.getBoolean("resume");
+        if(resume && checkpoints == null) {
+            System.err.println("ERROR: --resume requires a --checkpoint directory.");
+            System.exit(1);
+        }
 
         List<String> solversToTest = ns.getList("solver");
         for(String solverName : solversToTest) {
@@ -97,17 +169,34 @@ public class Main {
             instances.addAll(matches);
         }
 
-        float[] runtimes = new float[solversToTest.size()];
-        float[] distances = new float[solversToTest.size()];
+        List<Long> seeds = ns.getList("seeds");
+        double[] runtimes = new double[solversToTest.size()];
+        double[] distances = new double[solversToTest.size()];
 
+        ResultSink sink = null;
         try {
-            output.print(  "                         ");
+            if(checkpoints != null)
+                Files.createDirectories(checkpoints);
+            if(ns.getString("results") != null)
+                sink = ResultSink.open(Paths.get(ns.getString("results")));
+
+            if(warmupMs > 0) {
+                Instance warmupInstance = Instance.fromFile(Paths.get("instances/", ns.getString("warmup_instance")));
+                for(String solverName : solversToTest) {
+                    Clock.restart();
+                    solvers.get(solverName).solve(warmupInstance, Clock.millis() + warmupMs);
+                    if(solvers.get(solverName) instanceof PortfolioSolver)
+                        ((PortfolioSolver) solvers.get(solverName)).resetStats();
+                }
+            }
+
+            output.print(  "                              ");
             for(String s : solversToTest)
                 output.printf("%-30s", s);
             output.println();
-            output.print("instance size  best      ");
+            output.print("instance size  best   lb      ");
             for(String ignored : solversToTest) {
-                output.print("runtime makespan   gap        ");
+                output.print("   runtime makespan   gap     ");
             }
             output.println();
 
@@ -119,28 +208,55 @@ public class Main {
                 Path path = Paths.get("instances/", instanceName);
                 Instance instance = Instance.fromFile(path);
 
-                output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
+                String size = instance.numJobs + "x" + instance.numMachines;
+                int lowerBound = LowerBound.of(instance);
+                output.printf("%-8s %-5s %4d %4d      ",instanceName, size, bestKnown, lowerBound);
 
                 for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
                     String solverName = solversToTest.get(solverId);
-                    Solver solver = solvers.get(solverName);
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    Result result = solver.solve(instance, deadline);
-                    long runtime = System.currentTimeMillis() - start;
-
-                    if(!result.schedule.isValid()) {
-                        System.err.println("ERROR: solver returned an invalid schedule");
-                        System.exit(1);
-                    }
+                    double runtime = 0;
+                    int makespan = Integer.MAX_VALUE;
+                    for(long seed : seeds) {
+                        Solver solver = solvers.get(solverName).withSeed(seed);
+                        if(checkpoints != null && solver instanceof TabooSolver) {
+                            String suffix = seeds.size() > 1 ? "-seed" + seed : "";
+                            Path file = checkpoints.resolve(solverName + "-" + instanceName + suffix + ".ckpt");
+                            ((TabooSolver) solver).checkpoint(file, checkpointPeriodMs, resume);
+                        }
+                        SolveEvent event = new SolveEvent();
+                        event.begin();
+                        Clock.restart();
+                        long deadline = Clock.millis() + solveTimeMs;
+                        Result result = solver.solve(instance, deadline);
+                        // in milliseconds, measured in nanoseconds
+                        double runRuntime = Clock.elapsedNanos() / 1e6;
+                        if(event.shouldCommit()) {
+                            event.instance = instanceName;
+                            event.solver = solverName;
+                            event.budget = solveTimeMs;
+                            event.makespan = result.schedule.makespan();
+                            event.exitCause = result.cause.name();
+                            event.commit();
+                        }
+
+                        if(!result.schedule.isValid()) {
+                            System.err.println("ERROR: solver returned an invalid schedule");
+                            System.exit(1);
+                        }
 
-                    assert result.schedule.isValid();
-                    int makespan = result.schedule.makespan();
-                    float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
-                    runtimes[solverId] += (float) runtime / (float) instances.size();
-                    distances[solverId] += dist / (float) instances.size();
+                        assert result.schedule.isValid();
+                        if(sink != null) {
+                            sink.write(new RunRecord(instanceName, size, solverName, seed, runRuntime,
+                                    result.schedule.makespan(), bestKnown, lowerBound, result.cause.name(), result.stats));
+                        }
+                        runtime += runRuntime / seeds.size();
+                        makespan = Math.min(makespan, result.schedule.makespan());
+                    }
+                    double dist = 100.0 * (makespan - bestKnown) / bestKnown;
+                    runtimes[solverId] += runtime / instances.size();
+                    distances[solverId] += dist / instances.size();
 
-                    output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
+                    output.printf("%10.3f %8s %5.1f     ", runtime, makespan, dist);
                     output.flush();
                 }
                 output.println();
@@ -148,9 +264,20 @@ public class Main {
             }
 
 
-            output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
+            output.printf("%-8s %-5s %4s %4s      ", "AVG", "-", "-", "-");
             for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                output.printf("%7.1f %8s %5.1f        ", runtimes[solverId], "-", distances[solverId]);
+                output.printf("%10.3f %8s %5.1f     ", runtimes[solverId], "-", distances[solverId]);
+            }
+            output.println();
+
+            // contribution of the members of each portfolio, to tune them
+            for(String solverName : solversToTest) {
+                if(solvers.get(solverName) instanceof PortfolioSolver) {
+                    output.println();
+                    output.println("Members of " + solverName + " :");
+                    for(PortfolioSolver.MemberStats stats : ((PortfolioSolver) solvers.get(solverName)).stats())
+                        output.println("  " + stats);
+                }
             }
 
 
@@ -158,6 +285,14 @@ public class Main {
         } catch (Exception e) {
             e.printStackTrace();
             System.exit(1);
+        } finally {
+            if(sink != null) {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
 }
@@ -1,5 +1,7 @@
 package jobshop;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class Result {
@@ -17,6 +19,14 @@ public class Result {
     public final Instance instance;
     public final Schedule schedule;
     public final ExitCause cause;
+    /** Counters of the search reported by the solver (e.g. "iterations" or "nodes"), empty if it reports none */
+    public final Map<String, Long> stats = new LinkedHashMap<>();
+
+    /** Records a counter of the search, and returns this result */
+    public Result withStat(String name, long value) {
+        stats.put(name, value);
+        return this;
+    }
     public Schedule getSchedule(){
         return this.schedule;
     }
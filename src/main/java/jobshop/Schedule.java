@@ -8,45 +8,61 @@ import java.util.stream.IntStream;
 
 public class Schedule {
     public final Instance pb;
-    // start times of each job and task
-    // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
-    final int[][] times;
+    // start times of each job and task, in a single flat array
+    // times[pb.operation(j, i)] is the start time of task (j,i) : i^th task of the j^th job
+    final int[] times;
 
+    // derived data, computed on first use (-1 / null when not computed yet)
+    private int makespan = -1;
+    private Task lastTask = null;
+    private volatile List<Task> criticalPath = null;
+
+    /** Creates a schedule from the start times of each task : times[j][i] is the start time of the i^th task of the j^th job.
+     * The array is copied. */
     public Schedule(Instance pb, int[][] times) {
         this.pb = pb;
-        this.times = new int[pb.numJobs][];
+        this.times = new int[pb.numOperations];
         for(int j = 0 ; j < pb.numJobs ; j++) {
-            this.times[j] = Arrays.copyOf(times[j], pb.numTasks);
+            System.arraycopy(times[j], 0, this.times, pb.operation(j, 0), pb.numTasks(j));
         }
     }
 
+    /** Creates a schedule from the flat array of start times : startTimes[pb.operation(j, i)] is the start time of the
+     * i^th task of the j^th job.
+     * The array is NOT copied : the schedule takes ownership of it and it must not be modified afterwards. */
+    public Schedule(Instance pb, int[] startTimes) {
+        assert startTimes.length == pb.numOperations;
+        this.pb = pb;
+        this.times = startTimes;
+    }
+
     public int startTime(int job, int task) {
-        return times[job][task];
+        return times[pb.operation(job, task)];
     }
 
     /** Returns true if this schedule is valid (no constraint is violated) */
     public boolean isValid() {
         for(int j = 0 ; j<pb.numJobs ; j++) {
-            for(int t = 1 ; t<pb.numTasks ; t++) {
+            for(int t = 1 ; t<pb.numTasks(j) ; t++) {
                 if(startTime(j, t-1) + pb.duration(j, t-1) > startTime(j, t))
                     return false;
             }
-            for(int t = 0 ; t<pb.numTasks ; t++) {
+            for(int t = 0 ; t<pb.numTasks(j) ; t++) {
                 if(startTime(j, t) < 0)
                     return false;
             }
         }
 
         for (int machine = 0 ; machine < pb.numMachines ; machine++) {
-            for(int j1=0 ; j1<pb.numJobs ; j1++) {
-                int t1 = pb.task_with_machine(j1, machine);
-                for(int j2=j1+1 ; j2<pb.numJobs ; j2++) {
-                    int t2 = pb.task_with_machine(j2, machine);
+            for(int i1=0 ; i1<pb.numOperationsOn(machine) ; i1++) {
+                int o1 = pb.operationOn(machine, i1);
+                for(int i2=i1+1 ; i2<pb.numOperationsOn(machine) ; i2++) {
+                    int o2 = pb.operationOn(machine, i2);
 
-                    boolean t1_first = startTime(j1, t1) + pb.duration(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = startTime(j2, t2) + pb.duration(j2, t2) <= startTime(j1, t1);
+                    boolean o1_first = times[o1] + pb.durationOf(o1) <= times[o2];
+                    boolean o2_first = times[o2] + pb.durationOf(o2) <= times[o1];
 
-                    if(!t1_first && !t2_first)
+                    if(!o1_first && !o2_first)
                         return false;
                 }
             }
@@ -56,11 +72,27 @@ public class Schedule {
     }
 
     public int makespan() {
-        int max = -1;
-        for(int j = 0 ; j<pb.numJobs ; j++) {
-            max = Math.max(max, startTime(j, pb.numTasks-1) + pb.duration(j, pb.numTasks -1));
+        if(makespan < 0) {
+            makespan = endTime(lastTask());
+        }
+        return makespan;
+    }
+
+    /** Returns the task that finishes last (the first one in job order in case of ties). */
+    public Task lastTask() {
+        if(lastTask == null) {
+            // the last task of a job ends after all of its other tasks (jobs without tasks are skipped)
+            Task last = null;
+            for(int j = 0 ; j<pb.numJobs ; j++) {
+                if(pb.numTasks(j) == 0)
+                    continue;
+                Task t = new Task(j, pb.numTasks(j)-1);
+                if(last == null || endTime(t) > endTime(last))
+                    last = t;
+            }
+            lastTask = last;
         }
-        return max;
+        return lastTask;
     }
 
     public int startTime(Task task) {
@@ -85,12 +117,17 @@ public class Schedule {
         return true;
     }
 
+    /** Returns a critical path of the schedule, computed once and cached (the returned list cannot be modified). */
     public List<Task> criticalPath() {
+        if(criticalPath == null) {
+            criticalPath = Collections.unmodifiableList(computeCriticalPath());
+        }
+        return criticalPath;
+    }
+
+    private List<Task> computeCriticalPath() {
         // select task with greatest end time
-        Task ldd = IntStream.range(0, pb.numJobs)
-                .mapToObj(j -> new Task(j, pb.numTasks-1))
-                .max(Comparator.comparing(this::endTime))
-                .get();
+        Task ldd = lastTask();
         assert endTime(ldd) == makespan();
 
         // list that will contain the critical path.
@@ -119,8 +156,9 @@ public class Schedule {
             }
             if(!latestPredecessor.isPresent()) {
                 // no latest predecessor found yet, look among tasks executing on the same machine
-                latestPredecessor = IntStream.range(0, pb.numJobs)
-                        .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine)))
+                latestPredecessor = IntStream.range(0, pb.numOperationsOn(machine))
+                        .map(i -> pb.operationOn(machine, i))
+                        .mapToObj(o -> new Task(pb.jobOf(o), pb.taskOf(o)))
                         .filter(t -> endTime(t) == startTime(cur))
                         .findFirst();
             }
@@ -4,4 +4,10 @@ public interface Solver {
 
     Result solve(Instance instance, long deadline);
 
+    /** The same solver, whose random choices are made from the given seed.
+     * Solvers without random choices return themselves. */
+    default Solver withSeed(long seed) {
+        return this;
+    }
+
 }
@@ -0,0 +1,79 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+/** Scratch arrays used to decode an encoding without allocating memory (see `Encoding.makespan(DecodeBuffer)`).
+ *
+ * A buffer is sized for one instance and can be reused for any number of decodings of encodings of this instance.
+ * It must not be shared between threads : each thread should own its buffer (see `ofThread`).
+ */
+public final class DecodeBuffer {
+
+    public final Instance instance;
+
+    /** For each job, end time of its last scheduled task. */
+    final int[] jobEnd;
+    /** For each job, index of its first task that has not been scheduled yet. */
+    final int[] nextTask;
+    /** For each machine, time at which it becomes free. */
+    final int[] machineFree;
+    /** For each machine, position in its sequence of the first task that has not been scheduled yet. */
+    final int[] nextOnMachine;
+    /** Stack of machines whose next task can be scheduled (its job predecessor is scheduled). */
+    final int[] ready;
+    /** For each machine, total duration of its tasks that have not been scheduled yet. */
+    final int[] machineRemaining;
+
+    /** For each task (instance.operation(job, task)), total duration of the tasks that follow it in its job. */
+    final int[] jobSuffix;
+    /** For each machine, total duration of its tasks. */
+    final int[] machineLoad;
+
+    /** Buffer of each thread, for the instance it last decoded */
+    private static final ThreadLocal<DecodeBuffer> threadBuffers = new ThreadLocal<>();
+
+    /** Buffer of the current thread for this instance, created when the thread first decodes an encoding of the
+     * instance (and replaced when it moves on to another instance). */
+    public static DecodeBuffer ofThread(Instance instance) {
+        DecodeBuffer buffer = threadBuffers.get();
+        if(buffer == null || buffer.instance != instance) {
+            buffer = new DecodeBuffer(instance);
+            threadBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    public DecodeBuffer(Instance instance) {
+        this.instance = instance;
+        this.jobEnd = new int[instance.numJobs];
+        this.nextTask = new int[instance.numJobs];
+        this.machineFree = new int[instance.numMachines];
+        this.nextOnMachine = new int[instance.numMachines];
+        this.ready = new int[instance.numMachines];
+        this.machineRemaining = new int[instance.numMachines];
+
+        this.jobSuffix = new int[instance.numOperations];
+        this.machineLoad = new int[instance.numMachines];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                jobSuffix[instance.operation(j, t)] = instance.jobSuffix(j, t);
+            }
+        }
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            machineLoad[m] = instance.machineLoad(m);
+        }
+    }
+
+    /** Resets the state of the jobs and machines before a new decoding. */
+    void reset() {
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            jobEnd[j] = 0;
+            nextTask[j] = 0;
+        }
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            machineFree[m] = 0;
+            nextOnMachine[m] = 0;
+            machineRemaining[m] = machineLoad[m];
+        }
+    }
+}
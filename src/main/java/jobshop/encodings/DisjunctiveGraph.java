@@ -0,0 +1,426 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** Disjunctive graph of a complete resource order, with its longest paths maintained incrementally.
+ *
+ * Nodes are the tasks, identified by instance.operation(job, task). Each task has an arc to the next task of its job
+ * and to the next task on its machine. The graph maintains :
+ *  - a topological order of the tasks,
+ *  - the head of each task (its earliest start time, i.e. the longest path from the source to the task),
+ *  - the tail of each task (the longest path from the end of the task to the sink).
+ *
+ * Changing the sequence of a machine (`swap`, `move`) only updates what depends on the modified arcs :
+ * the topological order is repaired with the dynamic algorithm of Pearce and Kelly (2006), which only reorders
+ * the tasks between the ends of each new arc that violates it, and detects the moves that would create a cycle
+ * (which are rejected, leaving the graph unchanged). Heads are then propagated forward from the modified tasks,
+ * in topological order, and only as long as they change. Tails are propagated backward the same way, but only when
+ * they are needed : evaluating a move (apply, makespan, undo) does not pay for them.
+ *
+ * A graph is not thread safe.
+ */
+public final class DisjunctiveGraph {
+
+    public final Instance instance;
+    private final int numOps;
+
+    private final int[] duration;
+    /** Whether each task is the first (resp. last) one of its job : the tasks of a job are consecutive, so that the
+     * previous and next tasks of the job of o are o-1 and o+1 otherwise */
+    private final boolean[] firstInJob;
+    private final boolean[] lastInJob;
+    /** Last task of each job */
+    private final int[] lastTasks;
+    /** For each machine, its sequence of tasks */
+    private final int[][] sequence;
+    /** Previous and next task on the same machine, -1 if none */
+    private final int[] machinePred;
+    private final int[] machineSucc;
+
+    /** Topological order : order[position[o]] == o */
+    private final int[] order;
+    private final int[] position;
+
+    private final int[] heads;
+    private final int[] tails;
+    /** Tasks whose outgoing arcs changed since the tails were last updated */
+    private final int[] staleTails;
+    private final boolean[] isStale;
+    private int numStaleTails = 0;
+
+    // work buffers
+    private final int[] saved;
+    private final int[] stack;
+    private final int[] forward;
+    private final int[] backward;
+    private final int[] reordered;
+    private final int[] pool;
+    private final int[] mark;
+    private int stamp = 0;
+
+    /** Builds the graph of a complete resource order.
+     * @throws IllegalArgumentException if the order contains a cycle */
+    public DisjunctiveGraph(ResourceOrder resourceOrder) {
+        this.instance = resourceOrder.instance;
+        this.numOps = instance.numOperations;
+
+        this.duration = new int[numOps];
+        this.firstInJob = new boolean[numOps];
+        this.lastInJob = new boolean[numOps];
+        for(int o = 0 ; o < numOps ; o++) {
+            duration[o] = instance.durationOf(o);
+        }
+        int numLast = 0;
+        int[] last = new int[instance.numJobs];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            if(instance.numTasks(j) > 0) {
+                firstInJob[instance.operation(j, 0)] = true;
+                lastInJob[instance.operation(j, instance.numTasks(j) - 1)] = true;
+                last[numLast++] = instance.operation(j, instance.numTasks(j) - 1);
+            }
+        }
+        this.lastTasks = Arrays.copyOf(last, numLast);
+        this.sequence = new int[instance.numMachines][];
+        this.machinePred = new int[numOps];
+        this.machineSucc = new int[numOps];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            sequence[m] = new int[instance.numOperationsOn(m)];
+            for(int i = 0 ; i < sequence[m].length ; i++) {
+                Task t = resourceOrder.tasksByMachine[m][i];
+                sequence[m][i] = instance.operation(t.job, t.task);
+            }
+            linkAll(m);
+        }
+
+        this.order = new int[numOps];
+        this.position = new int[numOps];
+        this.heads = new int[numOps];
+        this.tails = new int[numOps];
+        this.staleTails = new int[numOps];
+        this.isStale = new boolean[numOps];
+
+        this.saved = new int[instance.numJobs];
+        this.stack = new int[numOps];
+        this.forward = new int[numOps];
+        this.backward = new int[numOps];
+        this.reordered = new int[numOps];
+        this.pool = new int[numOps];
+        this.mark = new int[numOps];
+
+        if(!sortTopologically())
+            throw new IllegalArgumentException("The resource order contains a cycle");
+        for(int i = 0 ; i < numOps ; i++) {
+            heads[order[i]] = computeHead(order[i]);
+        }
+        for(int i = numOps - 1 ; i >= 0 ; i--) {
+            tails[order[i]] = computeTail(order[i]);
+        }
+    }
+
+    /** Earliest start time of the task. */
+    public int head(int job, int task) {
+        return heads[instance.operation(job, task)];
+    }
+
+    /** Longest path from the end of the task to the end of the schedule. */
+    public int tail(int job, int task) {
+        if(numStaleTails > 0)
+            propagateTails();
+        return tails[instance.operation(job, task)];
+    }
+
+    public int makespan() {
+        int makespan = 0;
+        for(int last : lastTasks) {
+            makespan = Math.max(makespan, heads[last] + duration[last]);
+        }
+        return makespan;
+    }
+
+    /** Task at the given position on the given machine. */
+    public Task task(int machine, int index) {
+        int o = sequence[machine][index];
+        return new Task(instance.jobOf(o), instance.taskOf(o));
+    }
+
+    /** Exchanges the tasks at positions i and j on the machine, if this does not create a cycle.
+     * Returns false (and leaves the graph unchanged) otherwise. */
+    public boolean swap(int machine, int i, int j) {
+        int lo = Math.min(i, j);
+        int hi = Math.max(i, j);
+        int[] seq = sequence[machine];
+        System.arraycopy(seq, lo, saved, 0, hi - lo + 1);
+        int tmp = seq[i];
+        seq[i] = seq[j];
+        seq[j] = tmp;
+        return resequence(machine, lo, hi);
+    }
+
+    /** Moves the task at position `from` on the machine to position `to`, the tasks in between being shifted by one
+     * position, if this does not create a cycle. Returns false (and leaves the graph unchanged) otherwise. */
+    public boolean move(int machine, int from, int to) {
+        int lo = Math.min(from, to);
+        int hi = Math.max(from, to);
+        int[] seq = sequence[machine];
+        System.arraycopy(seq, lo, saved, 0, hi - lo + 1);
+        int moved = seq[from];
+        if(from < to) {
+            System.arraycopy(seq, from + 1, seq, from, to - from);
+        } else {
+            System.arraycopy(seq, to, seq, to + 1, from - to);
+        }
+        seq[to] = moved;
+        return resequence(machine, lo, hi);
+    }
+
+    /** Builds the resource order corresponding to the current sequences of the machines. */
+    public ResourceOrder toResourceOrder() {
+        ResourceOrder resourceOrder = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < sequence[m].length ; i++) {
+                resourceOrder.tasksByMachine[m][i] = task(m, i);
+            }
+            resourceOrder.nextFreeSlot[m] = sequence[m].length;
+        }
+        return resourceOrder;
+    }
+
+    /** Updates the graph after the tasks at positions lo..hi of the machine have been reordered (their previous
+     * order being in `saved`). Reverts the change and returns false if it creates a cycle. */
+    private boolean resequence(int machine, int lo, int hi) {
+        int[] seq = sequence[machine];
+        int first = Math.max(lo - 1, 0);
+        int last = Math.min(hi + 1, seq.length - 1);
+
+        // deleting arcs never invalidates the topological order, the new arcs are then inserted one by one
+        unlink(seq, lo, hi);
+        for(int k = first ; k < last ; k++) {
+            if(!insertArc(seq[k], seq[k + 1])) {
+                // cycle : restore the previous sequence (whose arcs can always be inserted back)
+                unlink(seq, lo, hi);
+                System.arraycopy(saved, 0, seq, lo, hi - lo + 1);
+                for(int l = first ; l < last ; l++) {
+                    insertArc(seq[l], seq[l + 1]);
+                }
+                return false;
+            }
+        }
+
+        propagateHeads(seq, lo, last);
+        for(int k = first ; k <= hi ; k++) {
+            if(!isStale[seq[k]]) {
+                isStale[seq[k]] = true;
+                staleTails[numStaleTails++] = seq[k];
+            }
+        }
+        return true;
+    }
+
+    /** Removes the machine arcs that enter or leave the tasks at positions lo..hi of the sequence. */
+    private void unlink(int[] seq, int lo, int hi) {
+        for(int k = lo ; k <= hi ; k++) {
+            machinePred[seq[k]] = -1;
+            machineSucc[seq[k]] = -1;
+        }
+        if(lo > 0)
+            machineSucc[seq[lo - 1]] = -1;
+        if(hi < seq.length - 1)
+            machinePred[seq[hi + 1]] = -1;
+    }
+
+    private void linkAll(int machine) {
+        int[] seq = sequence[machine];
+        for(int k = 0 ; k < seq.length ; k++) {
+            machinePred[seq[k]] = k > 0 ? seq[k - 1] : -1;
+            machineSucc[seq[k]] = k < seq.length - 1 ? seq[k + 1] : -1;
+        }
+    }
+
+    /** Kahn's algorithm on the whole graph. Returns false if it has a cycle. */
+    private boolean sortTopologically() {
+        int[] inDegree = mark;
+        int size = 0;
+        for(int o = 0 ; o < numOps ; o++) {
+            inDegree[o] = (firstInJob[o] ? 0 : 1) + (machinePred[o] >= 0 ? 1 : 0);
+            if(inDegree[o] == 0)
+                order[size++] = o;
+        }
+        for(int i = 0 ; i < size ; i++) {
+            int o = order[i];
+            position[o] = i;
+            if(!lastInJob[o] && --inDegree[o + 1] == 0)
+                order[size++] = o + 1;
+            if(machineSucc[o] >= 0 && --inDegree[machineSucc[o]] == 0)
+                order[size++] = machineSucc[o];
+        }
+        Arrays.fill(mark, 0);
+        return size == numOps;
+    }
+
+    /** Inserts the machine arc x -> y and repairs the topological order (Pearce and Kelly).
+     * Returns false, without inserting the arc, if it would create a cycle. */
+    private boolean insertArc(int x, int y) {
+        int lb = position[y];
+        int ub = position[x];
+        if(lb > ub) {
+            machineSucc[x] = y;
+            machinePred[y] = x;
+            return true;
+        }
+
+        // forward search from y among the tasks placed before x : reaching x means a cycle
+        stamp++;
+        int numForward = 0;
+        int top = 0;
+        stack[top++] = y;
+        mark[y] = stamp;
+        while(top > 0) {
+            int o = stack[--top];
+            forward[numForward++] = position[o];
+            int jobSucc = lastInJob[o] ? -1 : o + 1;
+            for(int s = 0 ; s < 2 ; s++) {
+                int w = s == 0 ? jobSucc : machineSucc[o];
+                if(w < 0)
+                    continue;
+                if(w == x)
+                    return false;
+                if(mark[w] != stamp && position[w] < ub) {
+                    mark[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+        }
+
+        // backward search from x among the tasks placed after y
+        int numBackward = 0;
+        stack[top++] = x;
+        mark[x] = stamp;
+        while(top > 0) {
+            int o = stack[--top];
+            backward[numBackward++] = position[o];
+            int jobPred = firstInJob[o] ? -1 : o - 1;
+            for(int s = 0 ; s < 2 ; s++) {
+                int w = s == 0 ? jobPred : machinePred[o];
+                if(w >= 0 && mark[w] != stamp && position[w] > lb) {
+                    mark[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+        }
+
+        // the tasks found backward are placed before those found forward, in the positions they occupied
+        Arrays.sort(forward, 0, numForward);
+        Arrays.sort(backward, 0, numBackward);
+        int n = 0;
+        for(int i = 0 ; i < numBackward ; i++) {
+            reordered[n++] = order[backward[i]];
+        }
+        for(int i = 0 ; i < numForward ; i++) {
+            reordered[n++] = order[forward[i]];
+        }
+        // positions available, in increasing order (merge of the two sorted lists)
+        int b = 0;
+        int f = 0;
+        for(int i = 0 ; i < n ; i++) {
+            pool[i] = f >= numForward || (b < numBackward && backward[b] < forward[f]) ? backward[b++] : forward[f++];
+        }
+        for(int i = 0 ; i < n ; i++) {
+            order[pool[i]] = reordered[i];
+            position[reordered[i]] = pool[i];
+        }
+
+        machineSucc[x] = y;
+        machinePred[y] = x;
+        return true;
+    }
+
+    private int computeHead(int o) {
+        int head = 0;
+        if(!firstInJob[o])
+            head = heads[o - 1] + duration[o - 1];
+        int p = machinePred[o];
+        if(p >= 0)
+            head = Math.max(head, heads[p] + duration[p]);
+        return head;
+    }
+
+    private int computeTail(int o) {
+        int tail = 0;
+        if(!lastInJob[o])
+            tail = tails[o + 1] + duration[o + 1];
+        int s = machineSucc[o];
+        if(s >= 0)
+            tail = Math.max(tail, tails[s] + duration[s]);
+        return tail;
+    }
+
+    /** Recomputes the heads of the tasks at positions from..to of the sequence, and of all the tasks whose head
+     * changes as a consequence. Tasks to update are marked, and the topological order is scanned from the first one
+     * until none is left, so that each task is computed after all its predecessors. */
+    private void propagateHeads(int[] seq, int from, int to) {
+        stamp++;
+        int pending = 0;
+        int start = numOps;
+        for(int k = from ; k <= to ; k++) {
+            mark[seq[k]] = stamp;
+            pending++;
+            start = Math.min(start, position[seq[k]]);
+        }
+        for(int p = start ; pending > 0 ; p++) {
+            int o = order[p];
+            if(mark[o] != stamp)
+                continue;
+            pending--;
+            int head = computeHead(o);
+            if(head != heads[o]) {
+                heads[o] = head;
+                if(!lastInJob[o] && mark[o + 1] != stamp) {
+                    mark[o + 1] = stamp;
+                    pending++;
+                }
+                int s = machineSucc[o];
+                if(s >= 0 && mark[s] != stamp) {
+                    mark[s] = stamp;
+                    pending++;
+                }
+            }
+        }
+    }
+
+    /** Recomputes the tails of the stale tasks, and of all the tasks whose tail changes as a consequence,
+     * scanning the topological order backward. */
+    private void propagateTails() {
+        stamp++;
+        int pending = 0;
+        int start = -1;
+        for(int i = 0 ; i < numStaleTails ; i++) {
+            int o = staleTails[i];
+            isStale[o] = false;
+            mark[o] = stamp;
+            pending++;
+            start = Math.max(start, position[o]);
+        }
+        numStaleTails = 0;
+        for(int p = start ; pending > 0 ; p--) {
+            int o = order[p];
+            if(mark[o] != stamp)
+                continue;
+            pending--;
+            int tail = computeTail(o);
+            if(tail != tails[o]) {
+                tails[o] = tail;
+                if(!firstInJob[o] && mark[o - 1] != stamp) {
+                    mark[o - 1] = stamp;
+                    pending++;
+                }
+                int q = machinePred[o];
+                if(q >= 0 && mark[q] != stamp) {
+                    mark[q] = stamp;
+                    pending++;
+                }
+            }
+        }
+    }
+}
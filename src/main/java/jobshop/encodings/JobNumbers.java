@@ -3,6 +3,7 @@ package jobshop.encodings;
 import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Schedule;
+import jobshop.jfr.DecodeEvent;
 
 import java.util.Arrays;
 import java.util.Comparator;
@@ -11,7 +12,7 @@ import java.util.stream.IntStream;
 /** Représentation par numéro de job. */
 public class JobNumbers extends Encoding {
 
-    /** A numJobs * numTasks array containing the representation by job numbers. */
+    /** An array of numOperations job numbers, each job appearing once per task, containing the representation by job numbers. */
     public final int[] jobs;
 
     /** In case the encoding is only partially filled, indicates the index of the first
@@ -21,26 +22,26 @@ public class JobNumbers extends Encoding {
     public JobNumbers(Instance instance) {
         super(instance);
 
-        jobs = new int[instance.numJobs * instance.numMachines];
+        jobs = new int[instance.numOperations];
         Arrays.fill(jobs, -1);
     }
 
     public JobNumbers(Schedule schedule) {
         super(schedule.pb);
 
-        this.jobs = new int[instance.numJobs * instance.numTasks];
+        this.jobs = new int[instance.numOperations];
 
         // for each job indicates which is the next task to be scheduled
         int[] nextOnJob = new int[instance.numJobs];
 
-        while(Arrays.stream(nextOnJob).anyMatch(t -> t < instance.numTasks)) {
+        while(nextToSet < jobs.length) {
             Task next = IntStream
                     // for all jobs numbers
                     .range(0, instance.numJobs)
                     // build the next task for this job
                     .mapToObj(j -> new Task(j, nextOnJob[j]))
                     // only keep valid tasks (some jobs have no task left to be executed)
-                    .filter(t -> t.task < instance.numTasks)
+                    .filter(t -> t.task < instance.numTasks(t.job))
                     // select the task with the earliest execution time
                     .min(Comparator.comparing(t -> schedule.startTime(t.job, t.task)))
                     .get();
@@ -52,29 +53,73 @@ public class JobNumbers extends Encoding {
 
     @Override
     public Schedule toSchedule() {
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
         // time at which each machine is going to be freed
         int[] nextFreeTimeResource = new int[instance.numMachines];
 
         // for each job, the first task that has not yet been scheduled
         int[] nextTask = new int[instance.numJobs];
 
-        // for each task, its start time
-        int[][] startTimes = new int[instance.numJobs][instance.numTasks];
+        // for each task, its start time (startTimes[instance.operation(job, task)])
+        int[] startTimes = new int[instance.numOperations];
 
         // compute the earliest start time for every task of every job
         for(int job : jobs) {
             int task = nextTask[job];
             int machine = instance.machine(job, task);
             // earliest start time for this task
-            int est = task == 0 ? 0 : startTimes[job][task-1] + instance.duration(job, task-1);
+            int op = instance.operation(job, task);
+            int est = task == 0 ? 0 : startTimes[op-1] + instance.duration(job, task-1);
             est = Math.max(est, nextFreeTimeResource[machine]);
 
-            startTimes[job][task] = est;
+            startTimes[op] = est;
             nextFreeTimeResource[machine] = est + instance.duration(job, task);
             nextTask[job] = task + 1;
         }
 
-        return new Schedule(instance, startTimes);
+        // the schedule takes ownership of the array, no copy is needed
+        Schedule schedule = new Schedule(instance, startTimes);
+        DecodeEvent.commitSampled(event, "JobNumbers", instance, schedule);
+        return schedule;
+    }
+
+    @Override
+    public int makespan(DecodeBuffer buffer, int cutoff) {
+        return makespan(instance, jobs, buffer, cutoff);
+    }
+
+    /** Decodes the given job sequence exactly like `toSchedule()` but only returns the makespan.
+     * Only the arrays of the buffer are used, so that no memory is allocated. */
+    public static int makespan(Instance instance, int[] jobs, DecodeBuffer buffer) {
+        return makespan(instance, jobs, buffer, INFEASIBLE);
+    }
+
+    /** Same as `makespan(Instance, int[], DecodeBuffer)`, but returns CUT_OFF as soon as it is proved that
+     * the makespan is not lower than `cutoff` (see `Encoding.makespan(DecodeBuffer, int)`). */
+    public static int makespan(Instance instance, int[] jobs, DecodeBuffer buffer, int cutoff) {
+        buffer.reset();
+        int[] jobEnd = buffer.jobEnd;
+        int[] nextTask = buffer.nextTask;
+        int[] machineFree = buffer.machineFree;
+        int[] machineRemaining = buffer.machineRemaining;
+        int[] jobSuffix = buffer.jobSuffix;
+
+        int makespan = 0;
+        for(int job : jobs) {
+            int op = instance.operation(job, nextTask[job]++);
+            int machine = instance.machineOf(op);
+            int duration = instance.durationOf(op);
+            int end = Math.max(jobEnd[job], machineFree[machine]) + duration;
+            jobEnd[job] = end;
+            machineFree[machine] = end;
+            machineRemaining[machine] -= duration;
+            // the rest of the job and the rest of the machine cannot start before the end of this task
+            if(end + jobSuffix[op] >= cutoff || end + machineRemaining[machine] >= cutoff)
+                return CUT_OFF;
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
     }
 
     @Override
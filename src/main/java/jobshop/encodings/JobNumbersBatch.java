@@ -0,0 +1,104 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** Evaluates many job numbers sequences at once (see JobNumbers).
+ *
+ * Up to `capacity` candidates are stored in a structure-of-arrays layout : the i-th gene of the candidate k is
+ * `genes[i * capacity + k]`. They are decoded in lockstep, one position of all candidates after the other, and the
+ * decoding state (end of each job and of each machine) is laid out the same way. Consecutive candidates thus read
+ * and write consecutive memory, and the loop over candidates has no dependency between iterations, which lets the
+ * JIT compiler unroll it and keeps the caches busy with useful data.
+ *
+ * A batch is sized for one instance and can be reused for any number of evaluations.
+ * It must not be shared between threads.
+ */
+public final class JobNumbersBatch {
+
+    public final Instance instance;
+    /** Maximum number of candidates of a batch */
+    public final int capacity;
+    /** Genes of the candidates : genes[i * capacity + k] is the i-th job number of the candidate k */
+    public final int[] genes;
+
+    // instance data, flattened : (instance.operation(job, task))
+    private final int[] jobStart;
+    private final int[] machines;
+    private final int[] durations;
+
+    // decoding state : index * capacity + k
+    private final int[] nextTask;
+    private final int[] jobEnd;
+    private final int[] machineFree;
+    private final int[] makespans;
+
+    public JobNumbersBatch(Instance instance, int capacity) {
+        this.instance = instance;
+        this.capacity = capacity;
+        int numOps = instance.numOperations;
+        this.genes = new int[numOps * capacity];
+        this.jobStart = new int[instance.numJobs];
+        this.machines = new int[numOps];
+        this.durations = new int[numOps];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            jobStart[j] = instance.operation(j, 0);
+        }
+        for(int o = 0 ; o < numOps ; o++) {
+            machines[o] = instance.machineOf(o);
+            durations[o] = instance.durationOf(o);
+        }
+        this.nextTask = new int[instance.numJobs * capacity];
+        this.jobEnd = new int[instance.numJobs * capacity];
+        this.machineFree = new int[instance.numMachines * capacity];
+        this.makespans = new int[capacity];
+    }
+
+    /** Stores the given sequence of job numbers as the k-th candidate of the batch. */
+    public void set(int k, int[] jobs) {
+        for(int i = 0 ; i < jobs.length ; i++) {
+            genes[i * capacity + k] = jobs[i];
+        }
+    }
+
+    /** Copies the k-th candidate of the batch in the given array. */
+    public void get(int k, int[] jobs) {
+        for(int i = 0 ; i < jobs.length ; i++) {
+            jobs[i] = genes[i * capacity + k];
+        }
+    }
+
+    /** Decodes the first `count` candidates of the batch and returns their makespans
+     * (in an array owned by the batch, overwritten by the next evaluation : only its first `count` elements are set).
+     * The result is the same as `JobNumbers.makespan` for each candidate. */
+    public int[] evaluate(int count) {
+        assert count <= capacity;
+        int numOps = instance.numOperations;
+        Arrays.fill(nextTask, 0);
+        Arrays.fill(jobEnd, 0);
+        Arrays.fill(machineFree, 0);
+        Arrays.fill(makespans, 0);
+
+        for(int i = 0 ; i < numOps ; i++) {
+            int base = i * capacity;
+            for(int k = 0 ; k < count ; k++) {
+                int job = genes[base + k];
+                int js = job * capacity + k;
+                int op = jobStart[job] + nextTask[js]++;
+                int ms = machines[op] * capacity + k;
+                int end = Math.max(jobEnd[js], machineFree[ms]) + durations[op];
+                jobEnd[js] = end;
+                machineFree[ms] = end;
+            }
+        }
+        // the makespan is the latest end of a job
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int base = j * capacity;
+            for(int k = 0 ; k < count ; k++) {
+                makespans[k] = Math.max(makespans[k], jobEnd[base + k]);
+            }
+        }
+        return makespans;
+    }
+}
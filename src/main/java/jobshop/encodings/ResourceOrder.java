@@ -3,9 +3,9 @@ package jobshop.encodings;
 import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Schedule;
+import jobshop.jfr.DecodeEvent;
 
 import java.util.Comparator;
-import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class ResourceOrder extends Encoding {
@@ -17,18 +17,36 @@ public class ResourceOrder extends Encoding {
     // for each machine, indicate on many tasks have been initialized
     public final int[] nextFreeSlot;
 
+    // position of each task on its machine (at index instance.operation(job, task)), built on first use.
+    // It is kept up to date by `swap` and `move`; after any other change of tasksByMachine, it is rebuilt on the first
+    // lookup that finds a stale position.
+    private int[] positions;
+
     /** Creates a new empty resource order. */
     public ResourceOrder(Instance instance)
     {
         super(instance);
 
-        // matrix of null elements (null is the default value of objects)
-        tasksByMachine = new Task[instance.numMachines][instance.numJobs];
+        // matrix of null elements (null is the default value of objects), with a row per machine as long as the
+        // number of tasks of the machine
+        tasksByMachine = new Task[instance.numMachines][];
+        for(int m = 0 ; m < instance.numMachines ; m++)
+            tasksByMachine[m] = new Task[instance.numOperationsOn(m)];
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
     }
 
+    /** Creates a copy of the given resource order. */
+    private ResourceOrder(ResourceOrder order) {
+        super(order.instance);
+        this.tasksByMachine = new Task[instance.numMachines][];
+        for(int m = 0 ; m < instance.numMachines ; m++)
+            this.tasksByMachine[m] = order.tasksByMachine[m].clone();
+        this.nextFreeSlot = order.nextFreeSlot.clone();
+        this.positions = order.positions == null ? null : order.positions.clone();
+    }
+
     /** Creates a resource order from a schedule. */
     public ResourceOrder(Schedule schedule)
     {
@@ -43,72 +61,170 @@ public class ResourceOrder extends Encoding {
 
             // for thi machine, find all tasks that are executed on it and sort them by their start time
             tasksByMachine[m] =
-                    IntStream.range(0, pb.numJobs) // all job numbers
-                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
+                    IntStream.range(0, pb.numOperationsOn(machine)) // all tasks on this machine
+                            .map(i -> pb.operationOn(machine, i))
+                            .mapToObj(o -> new Task(pb.jobOf(o), pb.taskOf(o)))
                             .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
                             .toArray(Task[]::new); // as new array and store in tasksByMachine
 
             // indicate that all tasks have been initialized for machine m
-            nextFreeSlot[m] = instance.numJobs;
+            nextFreeSlot[m] = tasksByMachine[m].length;
         }
     }
 
     @Override
     public Schedule toSchedule() {
-        // indicate for each task that have been scheduled, its start time
-        int [][] startTimes = new int [instance.numJobs][instance.numTasks];
-
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
-
-        // for each machine, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByMachine = new int[instance.numMachines];
-
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
-
-
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has noun scheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // if there is no such task, we have cyclic dependency and the solution is invalid
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we found a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : startTimes[t.job][t.task-1] + instance.duration(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t)]);
-                startTimes[t.job][t.task] = est;
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return null;
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
+        // indicate for each task that have been scheduled, its start time (startTimes[instance.operation(job, task)])
+        int[] startTimes = new int[instance.numOperations];
+        Schedule schedule = null;
+        // if no tasks are schedulable, there is no solution for this resource ordering
+        if(decode(DecodeBuffer.ofThread(instance), startTimes, INFEASIBLE) != INFEASIBLE) {
+            // all tasks have been scheduled successfully
+            // the schedule takes ownership of the array, no copy is needed
+            schedule = new Schedule(instance, startTimes);
+        }
+        DecodeEvent.commitSampled(event, "ResourceOrder", instance, schedule);
+        return schedule;
+    }
+
+    @Override
+    public int makespan(DecodeBuffer buffer, int cutoff) {
+        return decode(buffer, null, cutoff);
+    }
+
+    /** Schedules every task as early as possible, in the order of the machines.
+     * Returns the makespan, INFEASIBLE if the order has a cyclic dependency, or CUT_OFF as soon as it is proved that
+     * the makespan is not lower than `cutoff`.
+     * If `startTimes` is not null, the start time of each task is stored in it (at index instance.operation(job, task)).
+     *
+     * A machine is ready when its next task is also the next one of its job. Ready machines are kept on a stack,
+     * and scheduling a task can only make ready its own machine and the machine of the next task of its job,
+     * so each task is scheduled in constant time. */
+    private int decode(DecodeBuffer buffer, int[] startTimes, int cutoff) {
+        buffer.reset();
+        int[] jobEnd = buffer.jobEnd;
+        int[] nextTask = buffer.nextTask;
+        int[] machineFree = buffer.machineFree;
+        int[] nextOnMachine = buffer.nextOnMachine;
+        int[] ready = buffer.ready;
+        int[] machineRemaining = buffer.machineRemaining;
+        int[] jobSuffix = buffer.jobSuffix;
+
+        // initially, machines whose first task is the first of its job are ready
+        int numReady = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            if(tasksByMachine[m].length > 0 && tasksByMachine[m][0].task == 0)
+                ready[numReady++] = m;
+        }
+
+        int scheduled = 0;
+        int makespan = 0;
+        while(numReady > 0) {
+            int machine = ready[--numReady];
+            Task t = tasksByMachine[machine][nextOnMachine[machine]++];
+            int op = instance.operation(t.job, t.task);
+
+            // the task starts as soon as its job and its machine are free
+            int est = Math.max(jobEnd[t.job], machineFree[machine]);
+            if(startTimes != null)
+                startTimes[op] = est;
+            int duration = instance.duration(t.job, t.task);
+            int end = est + duration;
+            jobEnd[t.job] = end;
+            machineFree[machine] = end;
+            machineRemaining[machine] -= duration;
+            // the rest of the job and the rest of the machine cannot start before the end of this task
+            if(end + jobSuffix[op] >= cutoff || end + machineRemaining[machine] >= cutoff)
+                return CUT_OFF;
+            nextTask[t.job]++;
+            makespan = Math.max(makespan, end);
+            scheduled++;
+
+            // the next task on this machine may now be schedulable...
+            if(nextOnMachine[machine] < tasksByMachine[machine].length) {
+                Task next = tasksByMachine[machine][nextOnMachine[machine]];
+                if(next.task == nextTask[next.job])
+                    ready[numReady++] = machine;
+            }
+            // ...as well as the next task of the job, if it is the next one on its machine
+            if(nextTask[t.job] < instance.numTasks(t.job)) {
+                int m = instance.machineOf(op + 1);
+                if(m != machine && nextOnMachine[m] < tasksByMachine[m].length) {
+                    Task next = tasksByMachine[m][nextOnMachine[m]];
+                    if(next.job == t.job && next.task == nextTask[t.job])
+                        ready[numReady++] = m;
+                }
+            }
+        }
+        // if some tasks could not be scheduled, we have cyclic dependency and the solution is invalid
+        return scheduled == instance.numOperations ? makespan : INFEASIBLE;
+    }
+
+    /** Position of the task on its machine. */
+    public int position(Task t) {
+        return position(t.job, t.task);
+    }
+
+    /** Position of the task on its machine, in constant time. */
+    public int position(int job, int task) {
+        int op = instance.operation(job, task);
+        if(positions != null) {
+            Task found = tasksByMachine[instance.machine(job, task)][positions[op]];
+            if(found != null && found.job == job)
+                return positions[op];
+        }
+        indexPositions();
+        return positions[op];
+    }
+
+    private void indexPositions() {
+        if(positions == null)
+            positions = new int[instance.numOperations];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < nextFreeSlot[m] ; i++) {
+                Task t = tasksByMachine[m][i];
+                positions[instance.operation(t.job, t.task)] = i;
             }
         }
-        // we exited the loop : all tasks have been scheduled successfully
-        return new Schedule(instance, startTimes);
     }
 
-    /** Creates an exact copy of this resource order. */
+    /** Exchanges the tasks at positions i and k of the machine. */
+    public void swap(int machine, int i, int k) {
+        Task[] tasks = tasksByMachine[machine];
+        Task a = tasks[i];
+        tasks[i] = tasks[k];
+        tasks[k] = a;
+        if(positions != null) {
+            setPosition(tasks[i], i);
+            setPosition(tasks[k], k);
+        }
+    }
+
+    /** Moves the task at position `from` of the machine to position `to`, the tasks in between being shifted by one. */
+    public void move(int machine, int from, int to) {
+        Task[] tasks = tasksByMachine[machine];
+        Task moved = tasks[from];
+        if(from < to) {
+            System.arraycopy(tasks, from + 1, tasks, from, to - from);
+        } else {
+            System.arraycopy(tasks, to, tasks, to + 1, from - to);
+        }
+        tasks[to] = moved;
+        if(positions != null) {
+            for(int i = Math.min(from, to) ; i <= Math.max(from, to) ; i++)
+                setPosition(tasks[i], i);
+        }
+    }
+
+    private void setPosition(Task t, int i) {
+        positions[instance.operation(t.job, t.task)] = i;
+    }
+
+    /** Creates an exact copy of this resource order, without decoding it (tasks are immutable and shared). */
     public ResourceOrder copy() {
-        return new ResourceOrder(this.toSchedule());
+        return new ResourceOrder(this);
     }
 
     @Override
@@ -118,9 +234,9 @@ public class ResourceOrder extends Encoding {
         for(int m=0; m < instance.numMachines; m++)
         {
             s.append("Machine ").append(m).append(" : ");
-            for(int j=0; j<instance.numJobs; j++)
+            for(int i=0; i<tasksByMachine[m].length; i++)
             {
-                s.append(tasksByMachine[m][j]).append(" ; ");
+                s.append(tasksByMachine[m][i]).append(" ; ");
             }
             s.append("\n");
         }
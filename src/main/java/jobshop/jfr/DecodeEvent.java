@@ -0,0 +1,53 @@
+package jobshop.jfr;
+
+import jobshop.Instance;
+import jobshop.Schedule;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event covering the decoding of a solution into a schedule (`Encoding.toSchedule`).
+ * Disabled by default (see SolveEvent).
+ *
+ * Decodes are far too frequent to be all recorded : only one out of `SAMPLING` is committed, 64 by default, which can
+ * be changed with the system property `jobshop.jfr.decodeSampling`. */
+@Name("jobshop.Decode")
+@Label("Decode")
+@Category("Jobshop")
+@Description("Sampled decoding of a solution into a schedule")
+@Enabled(false)
+@StackTrace(false)
+public class DecodeEvent extends jdk.jfr.Event {
+
+    /** One decode out of SAMPLING is recorded */
+    private static final int SAMPLING = Math.max(1, Integer.getInteger("jobshop.jfr.decodeSampling", 64));
+    /** Number of decodes since the recording of the event was enabled. Updates are not synchronized :
+     * concurrent decodes may be counted once, which only changes which ones are sampled. */
+    private static int count;
+
+    @Label("Encoding")
+    public String encoding;
+
+    @Label("Tasks")
+    @Description("Number of tasks of the instance")
+    public int tasks;
+
+    @Label("Makespan")
+    @Description("Makespan of the schedule, or -1 if the solution is infeasible")
+    public int makespan;
+
+    /** Commits the event, begun before the decoding, if it is enabled and sampled.
+     * The schedule is null if the solution is infeasible. */
+    public static void commitSampled(DecodeEvent event, String encoding, Instance instance, Schedule schedule) {
+        if(event.shouldCommit() && ++count % SAMPLING == 0) {
+            event.encoding = encoding;
+            event.tasks = instance.numOperations;
+            event.makespan = schedule == null ? -1 : schedule.makespan();
+            event.commit();
+        }
+    }
+}
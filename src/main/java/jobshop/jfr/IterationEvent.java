@@ -0,0 +1,37 @@
+package jobshop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event covering one iteration of a local search (see DescentSolver and TabooSolver).
+ * Disabled by default (see SolveEvent). */
+@Name("jobshop.Iteration")
+@Label("Local Search Iteration")
+@Category("Jobshop")
+@Description("Exploration of the neighborhood of the current solution and move to one of its neighbors")
+@Enabled(false)
+@StackTrace(false)
+public class IterationEvent extends jdk.jfr.Event {
+
+    @Label("Solver")
+    public String solver;
+
+    @Label("Iteration")
+    public int iteration;
+
+    @Label("Neighbors")
+    @Description("Number of neighbors evaluated")
+    public int neighbors;
+
+    @Label("Current Makespan")
+    @Description("Makespan of the solution reached by the iteration, if it moved")
+    public int currentMakespan;
+
+    @Label("Best Makespan")
+    @Description("Makespan of the best solution found so far")
+    public int bestMakespan;
+}
@@ -0,0 +1,41 @@
+package jobshop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Flight recorder event covering the resolution of an instance by a solver.
+ *
+ * Like all events of this package, it is disabled by default and must be enabled in the recording settings
+ * (e.g. with `+jobshop.Solve#enabled=true`, see the README). A disabled event is never allocated nor committed :
+ * the JIT compiler removes the instrumentation entirely. */
+@Name("jobshop.Solve")
+@Label("Solve")
+@Category("Jobshop")
+@Description("Resolution of an instance by a solver")
+@Enabled(false)
+@StackTrace(false)
+public class SolveEvent extends jdk.jfr.Event {
+
+    @Label("Instance")
+    public String instance;
+
+    @Label("Solver")
+    public String solver;
+
+    @Label("Budget")
+    @Description("Time given to the solver")
+    @Timespan(Timespan.MILLISECONDS)
+    public long budget;
+
+    @Label("Makespan")
+    @Description("Makespan of the solution found")
+    public int makespan;
+
+    @Label("Exit Cause")
+    public String exitCause;
+}
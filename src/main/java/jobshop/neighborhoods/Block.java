@@ -0,0 +1,51 @@
+package jobshop.neighborhoods;
+
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A block represents a subsequence of the critical path such that all tasks in it execute on the same machine.
+ * This class identifies a block in a ResourceOrder representation.
+ *
+ * Consider the solution in ResourceOrder representation
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (0,2) (2,1) (1,1)
+ * machine 2 : ...
+ *
+ * The block with : machine = 1, firstTask= 0 and lastTask = 1
+ * Represent the task sequence : [(0,2) (2,1)]
+ *
+ * */
+public class Block {
+    /** machine on which the block is identified */
+    public final int machine;
+    /** index of the first task of the block */
+    public final int firstTask;
+    /** index of the last task of the block */
+    public final int lastTask;
+
+    public Block(int machine, int firstTask, int lastTask) {
+        this.machine = machine;
+        this.firstTask = firstTask;
+        this.lastTask = lastTask;
+    }
+
+    /** Returns a list of all blocks of the critical path. */
+    public static List<Block> blocksOfCriticalPath(ResourceOrder order) {
+        return blocksOfCriticalPath(order, order.toSchedule());
+    }
+
+    /** Returns a list of all blocks of the critical path, the schedule being the one of the given order.
+     * Searches that look for the blocks at each iteration should reuse a `Blocks` buffer instead. */
+    public static List<Block> blocksOfCriticalPath(ResourceOrder order, Schedule schedule) {
+        Blocks blocks = new Blocks();
+        blocks.find(order, schedule);
+        List<Block> blockList = new ArrayList<>(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            blockList.add(new Block(blocks.machine(i), blocks.first(i), blocks.last(i)));
+        }
+        return blockList;
+    }
+}
@@ -0,0 +1,78 @@
+package jobshop.neighborhoods;
+
+import jobshop.Instance;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** The blocks of a critical path (see Block), stored as primitive arrays that are reused from one call of `find` to
+ * the next : the i-th block is on machine `machine(i)`, from position `first(i)` to position `last(i)` (included).
+ *
+ * Finding the blocks takes a time linear in the length of the critical path and allocates nothing once the arrays
+ * have grown to the number of blocks. A buffer must not be used by several threads at once.
+ */
+public final class Blocks {
+
+    private int size;
+    private int[] machines = new int[16];
+    private int[] firsts = new int[16];
+    private int[] lasts = new int[16];
+
+    /** Number of blocks found by the last call of `find`. */
+    public int size() {
+        return size;
+    }
+
+    public int machine(int i) {
+        return machines[i];
+    }
+
+    public int first(int i) {
+        return firsts[i];
+    }
+
+    public int last(int i) {
+        return lasts[i];
+    }
+
+    /** Replaces the content of the buffer with the blocks of the critical path of the order, the schedule being the one
+     * of the order. Returns the number of blocks. */
+    public int find(ResourceOrder order, Schedule schedule) {
+        Instance instance = order.instance;
+        List<Task> criticalPath = schedule.criticalPath();
+        size = 0;
+        // current run of tasks on the same machine : machine, and positions of its first and last tasks
+        int blockMachine = -1;
+        int blockFirst = -1;
+        int blockLast = -1;
+        for(Task current : criticalPath) {
+            int machine = instance.machine(current.job, current.task);
+            if(machine != blockMachine) {
+                add(blockMachine, blockFirst, blockLast);
+                blockMachine = machine;
+                blockFirst = order.position(current);
+            }
+            blockLast = order.position(current);
+        }
+        add(blockMachine, blockFirst, blockLast);
+        return size;
+    }
+
+    /** Adds the run of tasks if it is a block (at least two tasks). */
+    private void add(int machine, int first, int last) {
+        if(last <= first)
+            return;
+        if(size == machines.length) {
+            machines = Arrays.copyOf(machines, 2 * size);
+            firsts = Arrays.copyOf(firsts, 2 * size);
+            lasts = Arrays.copyOf(lasts, 2 * size);
+        }
+        machines[size] = machine;
+        firsts[size] = first;
+        lasts[size] = last;
+        size++;
+    }
+}
@@ -0,0 +1,68 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.DisjunctiveGraph;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+/**
+ * Represents the move of a task to another position on its machine in a ResourceOrder encoding,
+ * the tasks in between being shifted by one position.
+ *
+ * Consider the solution in ResourceOrder representation
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (0,2) (2,1) (1,1)
+ * machine 2 : ...
+ *
+ * The insertion with : machine = 1, from = 0 and to = 2
+ * moves the task (0,2) right after (1,1) :
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (2,1) (1,1) (0,2)
+ * machine 2 : ...
+ */
+public class Insertion extends Move {
+    // index of the task to move
+    public final int from;
+    // index of the task once moved
+    public final int to;
+
+    public Insertion(int machine, int from, int to) {
+        super(machine);
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void applyOn(ResourceOrder order) {
+        order.move(machine, from, to);
+    }
+
+    @Override
+    public void undoOn(ResourceOrder order) {
+        order.move(machine, to, from);
+    }
+
+    @Override
+    public boolean applyOn(DisjunctiveGraph graph) {
+        return graph.move(machine, from, to);
+    }
+
+    @Override
+    public void undoOn(DisjunctiveGraph graph) {
+        graph.move(machine, to, from);
+    }
+
+    @Override
+    public Task firstTask(ResourceOrder order) {
+        return order.tasksByMachine[machine][Math.min(from, to)];
+    }
+
+    @Override
+    public Task secondTask(ResourceOrder order) {
+        return order.tasksByMachine[machine][Math.max(from, to)];
+    }
+
+    @Override
+    public String toString() {
+        return "Insertion(machine " + machine + ": " + from + " -> " + to + ")";
+    }
+}
@@ -0,0 +1,46 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.DisjunctiveGraph;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+/** A modification of the order of the tasks on one machine of a ResourceOrder.
+ *
+ * A move is applied in place with `applyOn` and reverted with `undoOn`, so that a neighbor can be evaluated
+ * without copying the whole solution :
+ * <pre>
+ *     move.applyOn(order);
+ *     int makespan = order.makespan(buffer);
+ *     move.undoOn(order);
+ * </pre>
+ */
+public abstract class Move {
+
+    /** machine on which the move is performed */
+    public final int machine;
+
+    Move(int machine) {
+        this.machine = machine;
+    }
+
+    /** Apply this move on the given resource order, transforming it into a new solution. */
+    public abstract void applyOn(ResourceOrder order);
+
+    /** Revert this move on the given resource order, on which it must have been the last move applied. */
+    public abstract void undoOn(ResourceOrder order);
+
+    /** Apply this move on the given disjunctive graph, whose heads and tails are updated incrementally.
+     * Returns false, leaving the graph unchanged, if the move would create a cycle. */
+    public abstract boolean applyOn(DisjunctiveGraph graph);
+
+    /** Revert this move on the given disjunctive graph, on which it must have been the last move applied. */
+    public abstract void undoOn(DisjunctiveGraph graph);
+
+    /** Among the two tasks at the ends of the move, whose relative order is inverted by it,
+     * returns the one that comes first in the given order (on which the move has not been applied). */
+    public abstract Task firstTask(ResourceOrder order);
+
+    /** Among the two tasks at the ends of the move, whose relative order is inverted by it,
+     * returns the one that comes second in the given order (on which the move has not been applied). */
+    public abstract Task secondTask(ResourceOrder order);
+}
@@ -0,0 +1,31 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Swap of any two adjacent tasks of a critical block (van Laarhoven, Aarts and Lenstra 1992).
+ * This neighborhood is connected : an optimal solution can always be reached from any solution. */
+public class N1 implements Neighborhood {
+
+    /** Blocks of the last solution, reused from one call to the next */
+    private final Blocks blocks = new Blocks();
+
+    @Override
+    public List<Move> neighbors(ResourceOrder order) {
+        List<Move> neighborsList = new ArrayList<>();
+        blocks.find(order, order.toSchedule());
+        for (int b = 0; b < blocks.size(); b++) {
+            for (int i = blocks.first(b); i < blocks.last(b); i++) {
+                neighborsList.add(new Swap(blocks.machine(b), i, i + 1));
+            }
+        }
+        return neighborsList;
+    }
+
+    @Override
+    public String toString() {
+        return "N1";
+    }
+}
@@ -0,0 +1,34 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Swap of the first two and of the last two tasks of each critical block (Nowicki and Smutnicki 1996). */
+public class N5 implements Neighborhood {
+
+    /** Blocks of the last solution, reused from one call to the next */
+    private final Blocks blocks = new Blocks();
+
+    @Override
+    public List<Move> neighbors(ResourceOrder order) {
+        List<Move> neighborsList = new ArrayList<>();
+        blocks.find(order, order.toSchedule());
+        for (int i = 0; i < blocks.size(); i++) {
+            int machine = blocks.machine(i);
+            int first = blocks.first(i);
+            int last = blocks.last(i);
+            neighborsList.add(new Swap(machine, first, first + 1));
+            if (last - first > 1) {
+                neighborsList.add(new Swap(machine, last - 1, last));
+            }
+        }
+        return neighborsList;
+    }
+
+    @Override
+    public String toString() {
+        return "N5";
+    }
+}
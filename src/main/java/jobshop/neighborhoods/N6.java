@@ -0,0 +1,140 @@
+package jobshop.neighborhoods;
+
+import jobshop.Instance;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Move of a task of a critical block right after the last task of the block, or right before its first task
+ * (Balas and Vazacopoulos 1998).
+ *
+ * Such a move may create a cycle, it is only kept when a sufficient condition guarantees that it does not :
+ *  - moving u right after v is feasible if u is the last task of its job, or if the longest path from v to the end
+ *    of the schedule is not shorter than the one from the job successor of u ;
+ *  - moving v right before u is feasible if v is the first task of its job, or if the longest path from the start of
+ *    the schedule to the end of u is not shorter than the one to the end of the job predecessor of v.
+ */
+public class N6 implements Neighborhood {
+
+    /** Scratch arrays of `tails`, sized for one instance */
+    private static final class Workspace {
+        final Instance instance;
+        /** For each operation, length of the longest path from its end to the end of the schedule */
+        final int[] tails;
+        /** For each operation, number of its successors (in its job and on its machine) whose tail is unknown */
+        final int[] pending;
+        /** Operations whose successors all have a known tail */
+        final int[] stack;
+
+        Workspace(Instance instance) {
+            this.instance = instance;
+            this.tails = new int[instance.numOperations];
+            this.pending = new int[instance.numOperations];
+            this.stack = new int[instance.numOperations];
+        }
+    }
+
+    /** Workspace of each thread, for the instance of its last call */
+    private final ThreadLocal<Workspace> workspaces = new ThreadLocal<>();
+
+    @Override
+    public List<Move> neighbors(ResourceOrder order) {
+        Instance instance = order.instance;
+        Schedule schedule = order.toSchedule();
+        int[] tails = tails(order);
+        List<Move> moves = new ArrayList<>();
+
+        for (Block block : Block.blocksOfCriticalPath(order, schedule)) {
+            Task[] tasks = order.tasksByMachine[block.machine];
+            Task first = tasks[block.firstTask];
+            Task last = tasks[block.lastTask];
+
+            // a task of the block moved right after its last task
+            for (int i = block.firstTask; i < block.lastTask; i++) {
+                Task u = tasks[i];
+                if (u.task == instance.numTasks(u.job) - 1
+                        || instance.duration(last) + tails[instance.operation(last.job, last.task)]
+                           >= instance.duration(u.job, u.task + 1) + tails[instance.operation(u.job, u.task + 1)]) {
+                    moves.add(new Insertion(block.machine, i, block.lastTask));
+                }
+            }
+
+            // a task of the block moved right before its first task
+            for (int i = block.firstTask + 1; i <= block.lastTask; i++) {
+                if (i == block.lastTask && block.firstTask == block.lastTask - 1) {
+                    // block of two tasks : same move as above
+                    continue;
+                }
+                Task v = tasks[i];
+                if (v.task == 0 || schedule.endTime(first) >= schedule.endTime(new Task(v.job, v.task - 1))) {
+                    moves.add(new Insertion(block.machine, i, block.firstTask));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /** For each operation (instance.operation(job, task)), length of the longest path from its end to the end of the
+     * schedule. The array is reused by the next call of the same thread.
+     *
+     * Operations are visited in reverse topological order of the graph of the order : an operation is visited once
+     * its successors in its job and on its machine are. (Start times do not give such an order when some tasks have
+     * a null duration.) */
+    int[] tails(ResourceOrder order) {
+        Instance instance = order.instance;
+        Workspace ws = workspaces.get();
+        if(ws == null || ws.instance != instance) {
+            ws = new Workspace(instance);
+            workspaces.set(ws);
+        }
+        int[] tails = ws.tails;
+        int[] pending = ws.pending;
+        int[] stack = ws.stack;
+
+        int size = 0;
+        for (int o = 0; o < instance.numOperations; o++) {
+            int job = instance.jobOf(o);
+            int task = instance.taskOf(o);
+            int successors = task < instance.numTasks(job) - 1 ? 1 : 0;
+            if (order.position(job, task) < order.tasksByMachine[instance.machineOf(o)].length - 1)
+                successors++;
+            pending[o] = successors;
+            if (successors == 0)
+                stack[size++] = o;
+        }
+        while (size > 0) {
+            int o = stack[--size];
+            int job = instance.jobOf(o);
+            int task = instance.taskOf(o);
+            Task[] tasks = order.tasksByMachine[instance.machineOf(o)];
+            int i = order.position(job, task);
+
+            // the job successor of an operation is the next operation
+            int tail = 0;
+            if (task < instance.numTasks(job) - 1)
+                tail = tails[o + 1] + instance.durationOf(o + 1);
+            if (i < tasks.length - 1) {
+                int succ = instance.operation(tasks[i + 1].job, tasks[i + 1].task);
+                tail = Math.max(tail, tails[succ] + instance.durationOf(succ));
+            }
+            tails[o] = tail;
+
+            if (task > 0 && --pending[o - 1] == 0)
+                stack[size++] = o - 1;
+            if (i > 0) {
+                int pred = instance.operation(tasks[i - 1].job, tasks[i - 1].task);
+                if (--pending[pred] == 0)
+                    stack[size++] = pred;
+            }
+        }
+        return tails;
+    }
+
+    @Override
+    public String toString() {
+        return "N6";
+    }
+}
@@ -0,0 +1,23 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.List;
+
+/** A neighborhood structure : produces the moves leading from a solution to its neighbors.
+ *
+ * Available implementations :
+ *  - N1 : swap of any two adjacent tasks of a critical block (van Laarhoven et al. 1992)
+ *  - N5 : swap of the first two and last two tasks of each critical block (Nowicki and Smutnicki 1996)
+ *  - N6 : move of a task of a critical block right before or right after the block,
+ *         only when the result is guaranteed to be acyclic (Balas and Vazacopoulos 1998)
+ *
+ * All moves produced are feasible : applying them on the given order never creates a cycle.
+ * A neighborhood may reuse internal buffers from one call to the next : an instance must not be used by several
+ * threads at once.
+ */
+public interface Neighborhood {
+
+    /** Returns the moves leading to the neighbors of the given solution. */
+    List<Move> neighbors(ResourceOrder order);
+}
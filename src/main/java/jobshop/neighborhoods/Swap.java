@@ -0,0 +1,71 @@
+package jobshop.neighborhoods;
+
+import jobshop.encodings.DisjunctiveGraph;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+/**
+ * Represents a swap of two tasks on the same machine in a ResourceOrder encoding.
+ *
+ * Consider the solution in ResourceOrder representation
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (0,2) (2,1) (1,1)
+ * machine 2 : ...
+ *
+ * The swap with : machine = 1, t1= 0 and t2 = 1
+ * Represent inversion of the two tasks : (0,2) and (2,1)
+ * Applying this swap on the above resource order should result in the following one :
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (2,1) (0,2) (1,1)
+ * machine 2 : ...
+ */
+public class Swap extends Move {
+    // index of one task to be swapped
+    public final int t1;
+    // index of the other task to be swapped
+    public final int t2;
+
+    public Swap(int machine, int t1, int t2) {
+        super(machine);
+        this.t1 = t1;
+        this.t2 = t2;
+    }
+
+    /** Apply this swap on the given resource order, transforming it into a new solution. */
+    @Override
+    public void applyOn(ResourceOrder order) {
+        //The order swaps the tasks and keeps their positions up to date
+        order.swap(machine, t1, t2);
+    }
+
+    /** A swap is its own inverse. */
+    @Override
+    public void undoOn(ResourceOrder order) {
+        applyOn(order);
+    }
+
+    @Override
+    public boolean applyOn(DisjunctiveGraph graph) {
+        return graph.swap(machine, t1, t2);
+    }
+
+    @Override
+    public void undoOn(DisjunctiveGraph graph) {
+        graph.swap(machine, t1, t2);
+    }
+
+    @Override
+    public Task firstTask(ResourceOrder order) {
+        return order.tasksByMachine[machine][Math.min(t1, t2)];
+    }
+
+    @Override
+    public Task secondTask(ResourceOrder order) {
+        return order.tasksByMachine[machine][Math.max(t1, t2)];
+    }
+
+    @Override
+    public String toString() {
+        return "Swap(machine " + machine + ": " + t1 + " <-> " + t2 + ")";
+    }
+}
@@ -0,0 +1,111 @@
+package jobshop.perf;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** A measure of the performance suite (see PerfSuite), compared with the same measure in a baseline. */
+public final class Metric {
+
+    /** What is measured, which tells whether a higher value is better and how regressions are detected. */
+    public enum Kind {
+        /** Operations per second : a regression is a relative slowdown */
+        Throughput,
+        /** Running time of a fixed amount of work : a regression is a relative slowdown */
+        Time,
+        /** Distance to the best known result, in percents : a regression is an absolute increase */
+        Gap
+    }
+
+    /** Unique name of the metric, e.g. "decode.resourceOrder.ft10" */
+    public final String name;
+    public final Kind kind;
+    public final String unit;
+    public final double value;
+
+    public Metric(String name, Kind kind, String unit, double value) {
+        this.name = name;
+        this.kind = kind;
+        this.unit = unit;
+        this.value = value;
+    }
+
+    /** Returns true if this metric is worse than the baseline one by more than the given thresholds.
+     *
+     * @param maxSlowdown maximal relative slowdown of throughputs and times (e.g. 0.2 for 20%)
+     * @param maxGapIncrease maximal increase of gaps, in percents of the best known result */
+    public boolean regressesFrom(Metric baseline, double maxSlowdown, double maxGapIncrease) {
+        switch (kind) {
+            case Throughput:
+                return value < baseline.value * (1 - maxSlowdown);
+            case Time:
+                return value > baseline.value * (1 + maxSlowdown);
+            case Gap:
+                return value > baseline.value + maxGapIncrease;
+            default:
+                throw new IllegalStateException("Unknown kind " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s = %.2f %s", name, value, unit);
+    }
+
+    /** Writes the metrics as a JSON document, with one metric per line, along with free-form information on the
+     * environment of the run (e.g. the JVM version). */
+    public static void write(Path path, List<Metric> metrics, List<String> environment) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"environment\": [");
+        for(int i = 0 ; i < environment.size() ; i++) {
+            json.append(i == 0 ? "\n    " : ",\n    ").append(quote(environment.get(i)));
+        }
+        json.append("\n  ],\n  \"metrics\": [");
+        for(int i = 0 ; i < metrics.size() ; i++) {
+            Metric m = metrics.get(i);
+            json.append(i == 0 ? "\n    " : ",\n    ")
+                    .append(String.format(Locale.ROOT, "{\"name\": %s, \"kind\": %s, \"unit\": %s, \"value\": %.4f}",
+                            quote(m.name), quote(m.kind.name()), quote(m.unit), m.value));
+        }
+        json.append("\n  ]\n}\n");
+        if(path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final Pattern METRIC = Pattern.compile(
+            "\\{\\s*\"name\"\\s*:\\s*\"([^\"]*)\"\\s*,\\s*\"kind\"\\s*:\\s*\"([A-Za-z]+)\"\\s*,"
+                    + "\\s*\"unit\"\\s*:\\s*\"([^\"]*)\"\\s*,\\s*\"value\"\\s*:\\s*([-+0-9.eE]+)\\s*}");
+    private static final Pattern NAME = Pattern.compile("\"name\"\\s*:");
+
+    /** Reads the metrics of a document written by `write` (whatever its whitespace).
+     * Fails if the document has no metric, or a metric that cannot be read, since a baseline read partially would
+     * hide the regressions of the metrics left out. */
+    public static List<Metric> read(Path path) throws IOException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        List<Metric> metrics = new ArrayList<>();
+        Matcher matcher = METRIC.matcher(json);
+        while(matcher.find()) {
+            metrics.add(new Metric(matcher.group(1), Kind.valueOf(matcher.group(2)), matcher.group(3),
+                    Double.parseDouble(matcher.group(4))));
+        }
+        int names = 0;
+        for(Matcher name = NAME.matcher(json) ; name.find() ; )
+            names++;
+        if(metrics.isEmpty())
+            throw new IOException("No metric in " + path);
+        if(metrics.size() != names)
+            throw new IOException("Only " + metrics.size() + " of the " + names + " metrics of " + path + " could be read");
+        return metrics;
+    }
+
+    /** Metric names and units are plain identifiers : only quotes and backslashes need escaping. */
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
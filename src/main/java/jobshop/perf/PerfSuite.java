@@ -0,0 +1,282 @@
+package jobshop.perf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.DecodeBuffer;
+import jobshop.encodings.DisjunctiveGraph;
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.neighborhoods.N5;
+import jobshop.solvers.*;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/** Performance regression suite, run by the `perf` and `perfBaseline` gradle tasks.
+ *
+ * A fixed matrix is measured on one instance of each family :
+ *  - the throughput of the decoding of each encoding, and of the evaluation of a move on the disjunctive graph ;
+ *  - for each solver and seed, the gap of its solution to the best known result and the total time it took.
+ * Solvers are given a budget of iterations (or samples) and no deadline, so that their results do not depend on the
+ * speed of the machine : any change of a gap is a change of the search itself.
+ *
+ * The metrics are compared with a baseline, stored as JSON in the repository, and the suite fails if any of them
+ * regresses past the thresholds. Throughputs and times depend on the machine : the baseline must be recorded on the
+ * machine that runs the suite (with `--update-baseline`).
+ */
+public class PerfSuite {
+
+    /** One instance of each family, of various sizes */
+    private static final String[] instances = { "ft10", "la16", "la21", "abz5", "orb01", "swv01" };
+
+    /** Solvers of the matrix, built from a seed */
+    private static final Map<String, LongFunction<Solver>> solvers = new LinkedHashMap<>();
+    /** Seeds each solver is run with (a single one for deterministic solvers) */
+    private static final Map<String, long[]> seeds = new HashMap<>();
+    static {
+        solvers.put("greedyEST_LRPT", seed -> new GreedySolver(Priority.EST_LRPT));
+        seeds.put("greedyEST_LRPT", new long[] { 0 });
+        solvers.put("descentSB", seed -> new DescentSolver(new ShiftingBottleneckSolver()));
+        seeds.put("descentSB", new long[] { 0 });
+        solvers.put("taboo10", seed -> new TabooSolver(10, 1000));
+        seeds.put("taboo10", new long[] { 0 });
+        solvers.put("tabooElite", seed -> new TabooSolver(10, 3000, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 200));
+        seeds.put("tabooElite", new long[] { 0 });
+        solvers.put("random", seed -> new RandomSolver(seed, 1, 20000));
+        seeds.put("random", new long[] { 1, 2, 3 });
+    }
+
+    /** Duration of each measure of a throughput, in milliseconds */
+    private static final long MEASURE_MS = 100;
+    /** Number of rounds of measures of the throughputs, the best one being kept (the first one serves as a warmup) */
+    private static final int MEASURES = 6;
+    /** Number of rounds of runs of the solvers, the best time being kept (the first one serves as a warmup) */
+    private static final int SOLVER_RUNS = 3;
+
+    /** Sink of the measured computations */
+    static volatile int blackhole;
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("jsp-perf").build()
+                .defaultHelp(true)
+                .description("Measures the performance of the solvers and compares it with a baseline.");
+        parser.addArgument("--baseline")
+                .setDefault("perf/baseline.json")
+                .help("Baseline to compare with");
+        parser.addArgument("--output")
+                .setDefault("build/perf/results.json")
+                .help("File where the metrics of this run are written");
+        parser.addArgument("--update-baseline")
+                .action(Arguments.storeTrue())
+                .help("Replaces the baseline with the metrics of this run instead of comparing them");
+        parser.addArgument("--max-slowdown")
+                .setDefault(0.3)
+                .type(Double.class)
+                .help("Maximal relative decrease of a throughput (or increase of a time) before failing");
+        parser.addArgument("--max-gap-increase")
+                .setDefault(0.5)
+                .type(Double.class)
+                .help("Maximal increase of the gap to the best known result (in percents) before failing");
+
+        Namespace ns = null;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+        Path baselinePath = Paths.get(ns.getString("baseline"));
+        Path outputPath = Paths.get(ns.getString("output"));
+        double maxSlowdown = ns.get("max_slowdown");
+        double maxGapIncrease = ns.get("max_gap_increase");
+
+        try {
+            List<Metric> metrics = run();
+            Metric.write(outputPath, metrics, environment());
+            if(ns.getBoolean("update_baseline")) {
+                Metric.write(baselinePath, metrics, environment());
+                System.out.println("Baseline written to " + baselinePath);
+                return;
+            }
+            if(!Files.exists(baselinePath)) {
+                System.err.println("ERROR: no baseline at " + baselinePath + ", record one with --update-baseline");
+                System.exit(1);
+            }
+            List<String> regressions = compare(metrics, Metric.read(baselinePath), maxSlowdown, maxGapIncrease);
+            if(!regressions.isEmpty()) {
+                System.err.println("ERROR: " + regressions.size() + " metric(s) of the baseline regressed past the thresholds or are missing"
+                        + String.format(Locale.ROOT, " (slowdown %.0f%%, gap +%.2f)", 100 * maxSlowdown, maxGapIncrease));
+                for(String regression : regressions)
+                    System.err.println("       " + regression);
+                System.exit(1);
+            }
+            System.out.println("No regression compared with " + baselinePath);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /** Measures all metrics of the matrix, printing them as they come.
+     * Each measure is repeated over the whole matrix, round after round, and the best round is kept for each metric,
+     * so that a transient load of the machine only affects the measures of one round. */
+    static List<Metric> run() throws IOException {
+        List<Metric> metrics = new ArrayList<>();
+        Instance[] loaded = new Instance[instances.length];
+        for(int i = 0 ; i < instances.length ; i++) {
+            loaded[i] = Instance.fromFile(Paths.get("instances/", instances[i]));
+        }
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        for(int i = 0 ; i < instances.length ; i++) {
+            addDecodingOperations(instances[i], loaded[i], operations);
+        }
+        Map<String, Double> throughputs = new LinkedHashMap<>();
+        for(int round = 0 ; round < MEASURES ; round++) {
+            for(Map.Entry<String, Runnable> operation : operations.entrySet()) {
+                throughputs.merge(operation.getKey(), throughput(operation.getValue()), Math::max);
+            }
+        }
+        for(Map.Entry<String, Double> throughput : throughputs.entrySet()) {
+            metrics.add(print(new Metric(throughput.getKey(), Metric.Kind.Throughput, "ops/s", throughput.getValue())));
+        }
+
+        Map<String, Long> times = new LinkedHashMap<>();
+        Map<String, int[]> makespans = new LinkedHashMap<>();
+        for(int round = 0 ; round < SOLVER_RUNS ; round++) {
+            for(Map.Entry<String, LongFunction<Solver>> entry : solvers.entrySet()) {
+                String solverName = entry.getKey();
+                for(long seed : seeds.get(solverName)) {
+                    String prefix = "solve." + solverName + ".seed" + seed;
+                    int[] results = new int[instances.length];
+                    long start = System.nanoTime();
+                    for(int i = 0 ; i < instances.length ; i++) {
+                        Result result = entry.getValue().apply(seed).solve(loaded[i], Long.MAX_VALUE);
+                        if(!result.schedule.isValid())
+                            throw new IllegalStateException(solverName + " returned an invalid schedule on " + instances[i]);
+                        results[i] = result.schedule.makespan();
+                    }
+                    times.merge(prefix, System.nanoTime() - start, Math::min);
+                    makespans.put(prefix, results);
+                }
+            }
+        }
+        for(Map.Entry<String, int[]> entry : makespans.entrySet()) {
+            for(int i = 0 ; i < instances.length ; i++) {
+                int bestKnown = BestKnownResult.of(instances[i]);
+                metrics.add(print(new Metric(entry.getKey() + "." + instances[i] + ".gap", Metric.Kind.Gap, "%",
+                        100.0 * (entry.getValue()[i] - bestKnown) / bestKnown)));
+            }
+            metrics.add(print(new Metric(entry.getKey() + ".time", Metric.Kind.Time, "ms", times.get(entry.getKey()) / 1e6)));
+        }
+        return metrics;
+    }
+
+    /** Adds the decoding operations measured on the given instance, starting from the same random solution for each
+     * encoding. */
+    private static void addDecodingOperations(String name, Instance instance, Map<String, Runnable> operations) {
+        Random random = new Random(0);
+        JobNumbers jobNumbers = new JobNumbers(instance);
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                jobNumbers.jobs[jobNumbers.nextToSet++] = j;
+            }
+        }
+        for(int i = jobNumbers.jobs.length - 1 ; i > 0 ; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = jobNumbers.jobs[i];
+            jobNumbers.jobs[i] = jobNumbers.jobs[k];
+            jobNumbers.jobs[k] = tmp;
+        }
+        ResourceOrder order = new ResourceOrder(jobNumbers.toSchedule());
+        DisjunctiveGraph graph = new DisjunctiveGraph(order);
+        DecodeBuffer buffer = new DecodeBuffer(instance);
+
+        // the results are published so that the JIT compiler cannot discard the measured computations
+        operations.put("decode.jobNumbers." + name, () -> blackhole += jobNumbers.makespan(buffer));
+        operations.put("decode.resourceOrder." + name, () -> blackhole += order.makespan(buffer));
+        operations.put("decode.toSchedule." + name, () -> blackhole += order.toSchedule().makespan());
+        // swaps of the first two tasks of each machine, evaluated and reverted as the local searches do
+        int[] machine = new int[1];
+        operations.put("graph.swap." + name, () -> {
+            int m = machine[0]++ % instance.numMachines;
+            if(graph.swap(m, 0, 1)) {
+                blackhole += graph.makespan();
+                graph.swap(m, 0, 1);
+            }
+        });
+    }
+
+    /** Number of executions per second of the given operation during one measure. */
+    private static double throughput(Runnable operation) {
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + MEASURE_MS * 1000000;
+        long now;
+        do {
+            for(int i = 0 ; i < 64 ; i++)
+                operation.run();
+            count += 64;
+            now = System.nanoTime();
+        } while(now < end);
+        return count * 1e9 / (now - start);
+    }
+
+    /** Regressions of the metrics compared with the baseline, as human readable lines.
+     * Metrics absent from the baseline (e.g. newly added ones) are not compared, but metrics of the baseline that the
+     * run did not produce (or with another kind) are regressions : the suite must not pass by measuring less. */
+    static List<String> compare(List<Metric> metrics, List<Metric> baseline, double maxSlowdown, double maxGapIncrease) {
+        Map<String, Metric> byName = new HashMap<>();
+        for(Metric m : baseline)
+            byName.put(m.name, m);
+        List<String> regressions = new ArrayList<>();
+        for(Metric m : metrics) {
+            Metric reference = byName.get(m.name);
+            if(reference != null && reference.kind == m.kind && m.regressesFrom(reference, maxSlowdown, maxGapIncrease)) {
+                regressions.add(String.format(Locale.ROOT, "%-40s %12.2f -> %12.2f %s", m.name, reference.value, m.value, m.unit));
+            }
+        }
+        Map<String, Metric> measured = new HashMap<>();
+        for(Metric m : metrics)
+            measured.put(m.name, m);
+        for(Metric reference : baseline) {
+            Metric m = measured.get(reference.name);
+            if(m == null || m.kind != reference.kind) {
+                regressions.add(String.format(Locale.ROOT, "%-40s %12.2f -> %12s %s", reference.name, reference.value,
+                        m == null ? "missing" : m.kind.name(), reference.unit));
+            }
+        }
+        return regressions;
+    }
+
+    private static List<String> environment() {
+        return Arrays.asList(
+                "java " + System.getProperty("java.version") + " (" + System.getProperty("java.vm.name") + ")",
+                System.getProperty("os.name") + " " + System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors() + " processors");
+    }
+
+    private static Metric print(Metric metric) {
+        System.out.println(metric);
+        return metric;
+    }
+}
@@ -0,0 +1,27 @@
+package jobshop.rescheduling;
+
+/** A new duration for a task, known since the schedule was computed. */
+public class DurationChange extends Event {
+
+    public final int job;
+    public final int task;
+    public final int duration;
+
+    public DurationChange(int job, int task, int duration) {
+        if(duration < 0)
+            throw new IllegalArgumentException("Negative duration " + duration);
+        this.job = job;
+        this.task = task;
+        this.duration = duration;
+    }
+
+    @Override
+    void applyOn(ProblemBuilder problem) {
+        problem.durations.get(job)[task] = duration;
+    }
+
+    @Override
+    public String toString() {
+        return "DurationChange((" + job + ", " + task + ") -> " + duration + ")";
+    }
+}
@@ -0,0 +1,14 @@
+package jobshop.rescheduling;
+
+/** A change of the shop floor that happened since a schedule was computed (see Rescheduler).
+ *
+ * Events are applied in order on the description of the problem : for instance, a job added by a JobArrival
+ * can have the duration of one of its tasks changed by a later DurationChange.
+ */
+public abstract class Event {
+
+    Event() {}
+
+    /** Applies this event on the problem being built. */
+    abstract void applyOn(ProblemBuilder problem);
+}
@@ -0,0 +1,27 @@
+package jobshop.rescheduling;
+
+/** A new job, available from the time of the rescheduling. It gets the next free job number.
+ * Like all jobs, it visits each machine at most once. */
+public class JobArrival extends Event {
+
+    /** Machine of each task of the new job */
+    public final int[] machines;
+    /** Duration of each task of the new job */
+    public final int[] durations;
+
+    public JobArrival(int[] machines, int[] durations) {
+        this.machines = machines.clone();
+        this.durations = durations.clone();
+    }
+
+    @Override
+    void applyOn(ProblemBuilder problem) {
+        problem.machines.add(machines.clone());
+        problem.durations.add(durations.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "JobArrival(" + machines.length + " tasks)";
+    }
+}
@@ -0,0 +1,29 @@
+package jobshop.rescheduling;
+
+/** A machine that is unavailable during the time window [from, to[.
+ * Tasks that are not frozen cannot be processed on the machine during the window, and are not preempted by it :
+ * a task that would overlap the window starts at its end. */
+public class MachineBreakdown extends Event {
+
+    public final int machine;
+    public final int from;
+    public final int to;
+
+    public MachineBreakdown(int machine, int from, int to) {
+        if(from > to)
+            throw new IllegalArgumentException("Empty unavailability window [" + from + ", " + to + "[");
+        this.machine = machine;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    void applyOn(ProblemBuilder problem) {
+        problem.windows.get(machine).add(new int[] {from, to});
+    }
+
+    @Override
+    public String toString() {
+        return "MachineBreakdown(machine " + machine + ": [" + from + ", " + to + "[)";
+    }
+}
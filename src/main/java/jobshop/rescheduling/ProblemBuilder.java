@@ -0,0 +1,38 @@
+package jobshop.rescheduling;
+
+import jobshop.Instance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Mutable description of a problem, on which events are applied. */
+class ProblemBuilder {
+
+    final int numMachines;
+    /** Machine and duration of each task of each job */
+    final List<int[]> machines = new ArrayList<>();
+    final List<int[]> durations = new ArrayList<>();
+    /** Unavailability windows [from, to[ of each machine */
+    final List<List<int[]>> windows = new ArrayList<>();
+
+    ProblemBuilder(Instance instance) {
+        this.numMachines = instance.numMachines;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int[] m = new int[instance.numTasks(j)];
+            int[] d = new int[instance.numTasks(j)];
+            for(int t = 0 ; t < m.length ; t++) {
+                m[t] = instance.machine(j, t);
+                d[t] = instance.duration(j, t);
+            }
+            machines.add(m);
+            durations.add(d);
+        }
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            windows.add(new ArrayList<>());
+        }
+    }
+
+    Instance toInstance() {
+        return Instance.of(numMachines, machines.toArray(new int[0][]), durations.toArray(new int[0][]));
+    }
+}
@@ -0,0 +1,154 @@
+package jobshop.rescheduling;
+
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** A rescheduling problem : the tasks of an instance are to be scheduled from time `now` on, around the
+ * unavailability windows of the machines, except for the frozen tasks that keep their start time.
+ *
+ * Frozen tasks must be a prefix of their job, and come first on their machine in any resource order.
+ * Tasks are identified by instance.operation(job, task).
+ */
+final class RepairProblem {
+
+    final Instance instance;
+    final int now;
+    /** Start time of each frozen task, -1 for the other tasks */
+    final int[] frozenStart;
+    /** Unavailability windows of each machine, sorted and disjoint : [windowStart[m][i], windowEnd[m][i][ */
+    final int[][] windowStart;
+    final int[][] windowEnd;
+
+    /** For each task, total duration of the tasks that follow it in its job */
+    private final int[] jobSuffix;
+
+    // decoding buffers
+    private final int[] jobEnd;
+    private final int[] nextTask;
+    private final int[] machineFree;
+    private final int[] nextOnMachine;
+    private final int[] ready;
+
+    RepairProblem(Instance instance, int now, int[] frozenStart, List<List<int[]>> windows) {
+        this.instance = instance;
+        this.now = now;
+        this.frozenStart = frozenStart;
+
+        this.windowStart = new int[instance.numMachines][];
+        this.windowEnd = new int[instance.numMachines][];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            // sort the windows and merge those that overlap
+            int[][] sorted = windows.get(m).stream()
+                    .sorted(Comparator.comparingInt(w -> w[0]))
+                    .toArray(int[][]::new);
+            int[] starts = new int[sorted.length];
+            int[] ends = new int[sorted.length];
+            int n = 0;
+            for(int[] w : sorted) {
+                if(n > 0 && w[0] <= ends[n - 1]) {
+                    ends[n - 1] = Math.max(ends[n - 1], w[1]);
+                } else {
+                    starts[n] = w[0];
+                    ends[n] = w[1];
+                    n++;
+                }
+            }
+            windowStart[m] = Arrays.copyOf(starts, n);
+            windowEnd[m] = Arrays.copyOf(ends, n);
+        }
+
+        this.jobSuffix = new int[instance.numOperations];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                jobSuffix[instance.operation(j, t)] = instance.jobSuffix(j, t);
+            }
+        }
+
+        this.jobEnd = new int[instance.numJobs];
+        this.nextTask = new int[instance.numJobs];
+        this.machineFree = new int[instance.numMachines];
+        this.nextOnMachine = new int[instance.numMachines];
+        this.ready = new int[instance.numMachines];
+    }
+
+    boolean isFrozen(int op) {
+        return frozenStart[op] >= 0;
+    }
+
+    /** Earliest time, not before `est`, at which a task of the given duration can be processed on the machine
+     * without overlapping one of its unavailability windows. */
+    int afterWindows(int machine, int est, int duration) {
+        int[] starts = windowStart[machine];
+        int[] ends = windowEnd[machine];
+        for(int i = 0 ; i < starts.length ; i++) {
+            if(est < ends[i] && est + duration > starts[i])
+                est = ends[i];
+        }
+        return est;
+    }
+
+    /** Schedules every task as early as possible in the order of the machines, under the constraints of the problem.
+     * Returns the makespan, Encoding.INFEASIBLE if the order has a cyclic dependency, or Encoding.CUT_OFF as soon as
+     * it is proved that the makespan is not lower than `cutoff`.
+     * If `startTimes` is not null, the start time of each task is stored in it. */
+    int decode(ResourceOrder order, int[] startTimes, int cutoff) {
+        Arrays.fill(jobEnd, 0);
+        Arrays.fill(nextTask, 0);
+        Arrays.fill(machineFree, 0);
+        Arrays.fill(nextOnMachine, 0);
+
+        int numReady = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            if(order.tasksByMachine[m].length > 0 && order.tasksByMachine[m][0].task == 0)
+                ready[numReady++] = m;
+        }
+
+        int scheduled = 0;
+        int makespan = 0;
+        while(numReady > 0) {
+            int machine = ready[--numReady];
+            Task t = order.tasksByMachine[machine][nextOnMachine[machine]++];
+            int op = instance.operation(t.job, t.task);
+            int duration = instance.duration(t.job, t.task);
+
+            int est = Math.max(jobEnd[t.job], machineFree[machine]);
+            if(isFrozen(op)) {
+                // frozen tasks keep their start time (unless a changed duration delays one of their predecessors)
+                est = Math.max(est, frozenStart[op]);
+            } else {
+                est = afterWindows(machine, Math.max(est, now), duration);
+            }
+            if(startTimes != null)
+                startTimes[op] = est;
+            int end = est + duration;
+            jobEnd[t.job] = end;
+            machineFree[machine] = end;
+            nextTask[t.job]++;
+            if(end + jobSuffix[op] >= cutoff)
+                return Encoding.CUT_OFF;
+            makespan = Math.max(makespan, end);
+            scheduled++;
+
+            if(nextOnMachine[machine] < order.tasksByMachine[machine].length) {
+                Task next = order.tasksByMachine[machine][nextOnMachine[machine]];
+                if(next.task == nextTask[next.job])
+                    ready[numReady++] = machine;
+            }
+            if(nextTask[t.job] < instance.numTasks(t.job)) {
+                int m = instance.machineOf(op + 1);
+                if(m != machine && nextOnMachine[m] < order.tasksByMachine[m].length) {
+                    Task next = order.tasksByMachine[m][nextOnMachine[m]];
+                    if(next.job == t.job && next.task == nextTask[t.job])
+                        ready[numReady++] = m;
+                }
+            }
+        }
+        return scheduled == instance.numOperations ? makespan : Encoding.INFEASIBLE;
+    }
+}
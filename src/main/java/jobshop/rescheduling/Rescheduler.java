@@ -0,0 +1,277 @@
+package jobshop.rescheduling;
+
+import jobshop.Clock;
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.neighborhoods.Swap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Repairs a schedule after changes of the shop floor (see Event), instead of solving the new problem from scratch.
+ *
+ * The tasks that have already started are frozen : they keep their start time and their place on their machine.
+ * The other tasks are rescheduled from the current time on, and cannot be processed while their machine is down.
+ *
+ * The previous solution is used as a warm start : the tasks keep their relative order on each machine, the tasks of
+ * new jobs being inserted according to their earliest start time. A short taboo search then improves this order,
+ * by swapping adjacent tasks at the ends of the critical blocks of the constrained schedule (as N5 does).
+ */
+public class Rescheduler {
+
+    /** Number of iterations during which a swap cannot be reverted */
+    private final int tabooTenure;
+    /** Number of iterations of the taboo search */
+    private final int maxIterations;
+
+    public Rescheduler() {
+        this(5, 200);
+    }
+
+    public Rescheduler(int tabooTenure, int maxIterations) {
+        this.tabooTenure = tabooTenure;
+        this.maxIterations = maxIterations;
+    }
+
+    /** Tasks of the schedule that started strictly before the given time. */
+    public static Set<Task> startedBefore(Schedule schedule, int time) {
+        Set<Task> started = new HashSet<>();
+        for(int j = 0 ; j < schedule.pb.numJobs ; j++) {
+            for(int t = 0 ; t < schedule.pb.numTasks(j) ; t++) {
+                if(schedule.startTime(j, t) < time)
+                    started.add(new Task(j, t));
+            }
+        }
+        return started;
+    }
+
+    /** Same as `reschedule(Schedule, int, Collection, List, long)`, freezing all tasks started before `now`. */
+    public Result reschedule(Schedule current, int now, List<Event> events, long deadline) {
+        return reschedule(current, now, startedBefore(current, now), events, deadline);
+    }
+
+    /** Computes a new schedule after the given events, from time `now` on.
+     *
+     * @param current the schedule being executed
+     * @param frozen tasks of the current schedule that keep their start time (typically those that have started).
+     *               They must be a prefix of their job.
+     * @param events changes since the current schedule was computed, applied in order
+     * @return the new instance (with the jobs that arrived numbered after the existing ones) and its schedule */
+    public Result reschedule(Schedule current, int now, Collection<Task> frozen, List<Event> events, long deadline) {
+        ProblemBuilder builder = new ProblemBuilder(current.pb);
+        for(Event event : events) {
+            event.applyOn(builder);
+        }
+        Instance instance = builder.toInstance();
+
+        int[] frozenStart = new int[instance.numOperations];
+        Arrays.fill(frozenStart, -1);
+        for(Task t : frozen) {
+            if(t.job >= current.pb.numJobs)
+                throw new IllegalArgumentException("Task " + t + " is not part of the current schedule");
+            frozenStart[instance.operation(t.job, t.task)] = current.startTime(t);
+        }
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 1 ; t < instance.numTasks(j) ; t++) {
+                if(frozenStart[instance.operation(j, t)] >= 0 && frozenStart[instance.operation(j, t - 1)] < 0)
+                    throw new IllegalArgumentException("Frozen tasks of job " + j + " are not a prefix of the job");
+            }
+        }
+        RepairProblem problem = new RepairProblem(instance, now, frozenStart, builder.windows);
+
+        ResourceOrder order = initialOrder(current, problem);
+        int[] startTimes = new int[instance.numOperations];
+        Result.ExitCause cause = improve(problem, order, startTimes, deadline);
+        return new Result(instance, new Schedule(instance, startTimes), cause);
+    }
+
+    /** Orders the tasks of each machine : frozen tasks first, by start time, then the others by their start time in
+     * the current schedule (or their earliest start time from `now` for the tasks of new jobs).
+     * Since these times increase along each job, all machines follow the same global order and there is no cycle. */
+    private static ResourceOrder initialOrder(Schedule current, RepairProblem problem) {
+        Instance instance = problem.instance;
+        long[] keys = new long[instance.numOperations];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int release = problem.now;
+            for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                int op = instance.operation(j, t);
+                if(problem.isFrozen(op)) {
+                    keys[op] = problem.frozenStart[op];
+                } else {
+                    int previous = j < current.pb.numJobs ? current.startTime(j, t) : release;
+                    keys[op] = (1L << 32) + Math.max(previous, problem.now);
+                }
+                release += instance.duration(j, t);
+            }
+        }
+
+        ResourceOrder order = new ResourceOrder(instance);
+        Comparator<Task> byKey = Comparator.<Task>comparingLong(t -> keys[instance.operation(t.job, t.task)])
+                .thenComparingInt(t -> t.job)
+                .thenComparingInt(t -> t.task);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < instance.numOperationsOn(m) ; i++) {
+                int op = instance.operationOn(m, i);
+                order.tasksByMachine[m][order.nextFreeSlot[m]++] = new Task(instance.jobOf(op), instance.taskOf(op));
+            }
+            Arrays.sort(order.tasksByMachine[m], byKey);
+        }
+        return order;
+    }
+
+    /** Taboo search on the order, stopped after `maxIterations` iterations or at the deadline.
+     * On return, the order is the best one found and `startTimes` contains its schedule. */
+    private Result.ExitCause improve(RepairProblem problem, ResourceOrder order, int[] startTimes, long deadline) {
+        Instance instance = problem.instance;
+        int numOps = instance.numOperations;
+
+        ResourceOrder current = copyOf(order);
+        int[] currentStart = new int[numOps];
+        int bestMakespan = problem.decode(order, null, Encoding.INFEASIBLE);
+        problem.decode(current, currentStart, Encoding.INFEASIBLE);
+
+        // recent swaps, that cannot be reverted : the pair (tabooFirst, tabooSecond) cannot be put back in this order
+        int[] tabooFirst = new int[Math.max(1, tabooTenure)];
+        int[] tabooSecond = new int[tabooFirst.length];
+        Arrays.fill(tabooFirst, -1);
+        int[] positions = new int[numOps];
+
+        Result.ExitCause cause = Result.ExitCause.Blocked;
+        for(int k = 0 ; k < maxIterations ; k++) {
+            if(Clock.millis() >= deadline) {
+                cause = Result.ExitCause.Timeout;
+                break;
+            }
+
+            Swap bestSwap = null;
+            int bestNeighbor = Encoding.INFEASIBLE;
+            for(Swap swap : criticalSwaps(problem, current, currentStart, positions)) {
+                Task first = current.tasksByMachine[swap.machine][swap.t1];
+                Task second = current.tasksByMachine[swap.machine][swap.t2];
+                swap.applyOn(current);
+                int makespan = problem.decode(current, null, bestNeighbor);
+                swap.undoOn(current);
+                // taboo moves are only allowed if they improve the best solution (aspiration)
+                if(makespan < bestNeighbor && (makespan < bestMakespan || !isTaboo(first, second, tabooFirst, tabooSecond, instance))) {
+                    bestNeighbor = makespan;
+                    bestSwap = swap;
+                }
+            }
+            if(bestSwap == null) {
+                break;
+            }
+
+            // the swapped tasks cannot be put back in their previous order for a while
+            tabooFirst[k % tabooFirst.length] = op(current.tasksByMachine[bestSwap.machine][bestSwap.t1], instance);
+            tabooSecond[k % tabooFirst.length] = op(current.tasksByMachine[bestSwap.machine][bestSwap.t2], instance);
+            bestSwap.applyOn(current);
+            problem.decode(current, currentStart, Encoding.INFEASIBLE);
+            if(bestNeighbor < bestMakespan) {
+                bestMakespan = bestNeighbor;
+                for(int m = 0 ; m < instance.numMachines ; m++) {
+                    System.arraycopy(current.tasksByMachine[m], 0, order.tasksByMachine[m], 0, order.tasksByMachine[m].length);
+                }
+            }
+        }
+        problem.decode(order, startTimes, Encoding.INFEASIBLE);
+        return cause;
+    }
+
+    /** Swaps of the first two and of the last two tasks of each critical block (as in N5), none of them being frozen.
+     * The critical path is followed backward from the task that ends last, as long as each task starts right at the
+     * end of its predecessor on its machine or in its job. */
+    private static List<Swap> criticalSwaps(RepairProblem problem, ResourceOrder order, int[] startTimes, int[] positions) {
+        Instance instance = problem.instance;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < order.tasksByMachine[m].length ; i++) {
+                positions[op(order.tasksByMachine[m][i], instance)] = i;
+            }
+        }
+
+        int last = 0;
+        for(int o = 0 ; o < startTimes.length ; o++) {
+            if(end(o, startTimes, instance) > end(last, startTimes, instance))
+                last = o;
+        }
+
+        List<Swap> swaps = new ArrayList<>();
+        // current block : machine and positions of its last and first tasks (the path is followed backward)
+        int blockMachine = -1;
+        int blockLast = -1;
+        int blockFirst = -1;
+        int o = last;
+        while(true) {
+            int machine = instance.machineOf(o);
+            int machinePred = positions[o] > 0 ? op(order.tasksByMachine[machine][positions[o] - 1], instance) : -1;
+            int jobPred = instance.taskOf(o) > 0 ? o - 1 : -1;
+            boolean frozen = problem.isFrozen(o);
+            if(!frozen && machinePred >= 0 && !problem.isFrozen(machinePred)
+                    && end(machinePred, startTimes, instance) == startTimes[o]) {
+                // the block continues with the machine predecessor
+                if(blockMachine != machine) {
+                    addBlock(swaps, blockMachine, blockFirst, blockLast);
+                    blockMachine = machine;
+                    blockLast = positions[o];
+                }
+                blockFirst = positions[o] - 1;
+                o = machinePred;
+                continue;
+            }
+            addBlock(swaps, blockMachine, blockFirst, blockLast);
+            blockMachine = -1;
+            if(!frozen && jobPred >= 0 && end(jobPred, startTimes, instance) == startTimes[o]) {
+                o = jobPred;
+            } else {
+                // the task is frozen, or starts at `now`, at the end of a window or at time 0
+                break;
+            }
+        }
+        return swaps;
+    }
+
+    /** Adds the swaps of the first two and last two tasks of the block, if any. */
+    private static void addBlock(List<Swap> swaps, int machine, int first, int last) {
+        if(machine < 0)
+            return;
+        swaps.add(new Swap(machine, first, first + 1));
+        if(last - 1 > first)
+            swaps.add(new Swap(machine, last - 1, last));
+    }
+
+    private static boolean isTaboo(Task first, Task second, int[] tabooFirst, int[] tabooSecond, Instance instance) {
+        // swapping (first, second) puts them in the order (second, first), which is taboo if (second, first) was swapped
+        int a = op(second, instance);
+        int b = op(first, instance);
+        for(int i = 0 ; i < tabooFirst.length ; i++) {
+            if(tabooFirst[i] == a && tabooSecond[i] == b)
+                return true;
+        }
+        return false;
+    }
+
+    private static int op(Task t, Instance instance) {
+        return instance.operation(t.job, t.task);
+    }
+
+    private static int end(int op, int[] startTimes, Instance instance) {
+        return startTimes[op] + instance.durationOf(op);
+    }
+
+    private static ResourceOrder copyOf(ResourceOrder order) {
+        ResourceOrder copy = new ResourceOrder(order.instance);
+        for(int m = 0 ; m < order.instance.numMachines ; m++) {
+            System.arraycopy(order.tasksByMachine[m], 0, copy.tasksByMachine[m], 0, order.tasksByMachine[m].length);
+            copy.nextFreeSlot[m] = order.nextFreeSlot[m];
+        }
+        return copy;
+    }
+}
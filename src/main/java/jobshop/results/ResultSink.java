@@ -0,0 +1,219 @@
+package jobshop.results;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** File to which the runs of a benchmark are streamed, one record per line, as soon as each of them completes.
+ *
+ * Records are appended and flushed one by one : a benchmark that crashes keeps all the runs it completed, and
+ * several benchmarks can add their runs to the same file, even after a crash left a line incomplete. Results are aggregated afterwards from the file
+ * (see `read` and Summary), without running the solvers again.
+ *
+ * The format is given by the extension of the file :
+ *  - CSV (".csv") : a header line, then one line per run. The counters of the solver are a single column of
+ *    "name=value" pairs separated by semicolons, since each solver reports its own counters ;
+ *  - JSON Lines (any other extension, e.g. ".jsonl") : one JSON object per run, the counters being a nested object.
+ */
+public final class ResultSink implements Closeable {
+
+    public enum Format { CSV, JSON_LINES }
+
+    private static final String[] COLUMNS = { "instance", "size", "solver", "seed", "runtime", "makespan",
+            "bestKnown", "lowerBound", "gap", "exitCause", "stats" };
+
+    private final Format format;
+    private final BufferedWriter out;
+
+    private ResultSink(Format format, BufferedWriter out) {
+        this.format = format;
+        this.out = out;
+    }
+
+    /** Format of a result file, from its extension */
+    public static Format formatOf(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? Format.CSV : Format.JSON_LINES;
+    }
+
+    /** Opens the file for appending, creating it (and its directory) if needed.
+     * A last line left incomplete by a crash is ended, so that the records written next are on lines of their own. */
+    public static ResultSink open(Path path) throws IOException {
+        if(path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        boolean empty = !Files.exists(path) || Files.size(path) == 0;
+        boolean incomplete = false;
+        if(!empty) {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+                file.seek(file.length() - 1);
+                incomplete = file.read() != '\n';
+            }
+        }
+        BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if(incomplete) {
+            out.newLine();
+            out.flush();
+        }
+        ResultSink sink = new ResultSink(formatOf(path), out);
+        if(sink.format == Format.CSV && empty) {
+            out.write(String.join(",", COLUMNS));
+            out.newLine();
+            out.flush();
+        }
+        return sink;
+    }
+
+    /** Appends the record and flushes it to the file. */
+    public void write(RunRecord r) throws IOException {
+        if(format == Format.CSV) {
+            StringBuilder stats = new StringBuilder();
+            for(Map.Entry<String, Long> stat : r.stats.entrySet()) {
+                if(stats.length() > 0)
+                    stats.append(';');
+                stats.append(stat.getKey()).append('=').append(stat.getValue());
+            }
+            out.write(String.join(",", csv(r.instance), csv(r.size), csv(r.solver), Long.toString(r.seed),
+                    String.format(Locale.ROOT, "%.3f", r.runtime), Integer.toString(r.makespan),
+                    Integer.toString(r.bestKnown), Integer.toString(r.lowerBound),
+                    String.format(Locale.ROOT, "%.4f", r.gap), csv(r.exitCause), csv(stats.toString())));
+        } else {
+            StringBuilder stats = new StringBuilder("{");
+            for(Map.Entry<String, Long> stat : r.stats.entrySet()) {
+                if(stats.length() > 1)
+                    stats.append(", ");
+                stats.append(json(stat.getKey())).append(": ").append(stat.getValue());
+            }
+            stats.append('}');
+            out.write(String.format(Locale.ROOT, "{\"instance\": %s, \"size\": %s, \"solver\": %s, \"seed\": %d, "
+                            + "\"runtime\": %.3f, \"makespan\": %d, \"bestKnown\": %d, \"lowerBound\": %d, "
+                            + "\"gap\": %.4f, \"exitCause\": %s, \"stats\": %s}",
+                    json(r.instance), json(r.size), json(r.solver), r.seed, r.runtime, r.makespan, r.bestKnown,
+                    r.lowerBound, r.gap, json(r.exitCause), stats));
+        }
+        out.newLine();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /** Reads all records of a file written by a sink.
+     * Lines left incomplete by a crash are skipped, with a warning unless it is the last line (the crash may be
+     * that of a benchmark still running). */
+    public static List<RunRecord> read(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        List<RunRecord> records = new ArrayList<>();
+        Format format = formatOf(path);
+        for(int i = format == Format.CSV ? 1 : 0 ; i < lines.size() ; i++) {
+            String line = lines.get(i);
+            if(line.isEmpty())
+                continue;
+            try {
+                records.add(format == Format.CSV ? parseCsv(line) : parseJson(line));
+            } catch (RuntimeException e) {
+                if(i < lines.size() - 1)
+                    System.err.println("WARNING: skipping the malformed record at line " + (i + 1) + " of " + path);
+            }
+        }
+        return records;
+    }
+
+    private static RunRecord parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0 ; i < line.length() ; i++) {
+            char c = line.charAt(i);
+            if(quoted) {
+                if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if(c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"') {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if(quoted || fields.size() != COLUMNS.length)
+            throw new IllegalArgumentException("Expected " + COLUMNS.length + " fields : " + line);
+
+        Map<String, Long> stats = new LinkedHashMap<>();
+        if(!fields.get(10).isEmpty()) {
+            for(String stat : fields.get(10).split(";")) {
+                int eq = stat.lastIndexOf('=');
+                stats.put(stat.substring(0, eq), Long.parseLong(stat.substring(eq + 1)));
+            }
+        }
+        return new RunRecord(fields.get(0), fields.get(1), fields.get(2), Long.parseLong(fields.get(3)),
+                Double.parseDouble(fields.get(4)), Integer.parseInt(fields.get(5)), Integer.parseInt(fields.get(6)),
+                Integer.parseInt(fields.get(7)), fields.get(9), stats);
+    }
+
+    private static final Pattern STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern FIELD = Pattern.compile(
+            "\"(\\w+)\": (\"(?:[^\"\\\\]|\\\\.)*\"|\\{[^}]*}|[-+0-9.eE]+)");
+    private static final Pattern STAT = Pattern.compile(STRING.pattern() + ": (-?[0-9]+)");
+
+    private static RunRecord parseJson(String line) {
+        if(!line.endsWith("}"))
+            throw new IllegalArgumentException("Incomplete record : " + line);
+        Map<String, String> fields = new LinkedHashMap<>();
+        // the stats object is matched as a whole, its own fields are parsed below
+        Matcher matcher = FIELD.matcher(line);
+        while(matcher.find())
+            fields.putIfAbsent(matcher.group(1), matcher.group(2));
+        Map<String, Long> stats = new LinkedHashMap<>();
+        Matcher stat = STAT.matcher(fields.get("stats"));
+        while(stat.find())
+            stats.put(unquote(stat.group(1)), Long.parseLong(stat.group(2)));
+        return new RunRecord(string(fields, "instance"), string(fields, "size"), string(fields, "solver"),
+                Long.parseLong(fields.get("seed")), Double.parseDouble(fields.get("runtime")),
+                Integer.parseInt(fields.get("makespan")), Integer.parseInt(fields.get("bestKnown")),
+                Integer.parseInt(fields.get("lowerBound")), string(fields, "exitCause"), stats);
+    }
+
+    private static String string(Map<String, String> fields, String name) {
+        Matcher matcher = STRING.matcher(fields.get(name));
+        if(!matcher.matches())
+            throw new IllegalArgumentException("\"" + name + "\" is not a string");
+        return unquote(matcher.group(1));
+    }
+
+    /** Names of instances, solvers and counters are plain identifiers : only quotes and backslashes need escaping. */
+    private static String json(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String unquote(String s) {
+        return s.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    private static String csv(String s) {
+        if(s.indexOf(',') < 0 && s.indexOf('"') < 0)
+            return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,66 @@
+package jobshop.results;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/** Outcome of one run of a solver on an instance, as written to a result file (see ResultSink). */
+public final class RunRecord {
+
+    public final String instance;
+    /** Size of the instance, as "numJobs x numMachines" (e.g. "10x10") */
+    public final String size;
+    public final String solver;
+    /** Seed given to the solver (see Solver.withSeed) */
+    public final long seed;
+    /** Time taken by the run, in milliseconds */
+    public final double runtime;
+    public final int makespan;
+    /** Best known makespan and lower bound of the instance */
+    public final int bestKnown;
+    public final int lowerBound;
+    /** Distance of the makespan to the best known one, in percents */
+    public final double gap;
+    /** Name of the Result.ExitCause of the run */
+    public final String exitCause;
+    /** Counters of the search reported by the solver (see Result.stats) */
+    public final Map<String, Long> stats;
+
+    public RunRecord(String instance, String size, String solver, long seed, double runtime, int makespan,
+                     int bestKnown, int lowerBound, String exitCause, Map<String, Long> stats) {
+        this.instance = instance;
+        this.size = size;
+        this.solver = solver;
+        this.seed = seed;
+        this.runtime = runtime;
+        this.makespan = makespan;
+        this.bestKnown = bestKnown;
+        this.lowerBound = lowerBound;
+        this.gap = 100.0 * (makespan - bestKnown) / bestKnown;
+        this.exitCause = exitCause;
+        this.stats = Collections.unmodifiableMap(new LinkedHashMap<>(stats));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof RunRecord))
+            return false;
+        RunRecord r = (RunRecord) o;
+        return instance.equals(r.instance) && size.equals(r.size) && solver.equals(r.solver) && seed == r.seed
+                && Double.compare(runtime, r.runtime) == 0 && makespan == r.makespan && bestKnown == r.bestKnown
+                && lowerBound == r.lowerBound && exitCause.equals(r.exitCause) && stats.equals(r.stats);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(instance, solver, seed, makespan);
+    }
+
+    @Override
+    public String toString() {
+        return instance + " " + solver + " seed " + seed + " : " + makespan + " (" + exitCause + ")";
+    }
+}
@@ -0,0 +1,107 @@
+package jobshop.results;
+
+import jobshop.Result;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/** Aggregates the runs of result files written by Main (see ResultSink), run by the `summary` gradle task.
+ *
+ * Runs are grouped by solver (or by solver and instance), and each group is reported with its number of runs,
+ * its average runtime and gap, the average of the best gap over the seeds of each instance, and the number of
+ * runs that proved their solution optimal. */
+public class Summary {
+
+    /** Aggregate of a group of runs */
+    public static final class Group {
+        public final String name;
+        public int runs;
+        public double runtime;
+        public double gap;
+        /** Average over the instances of the best gap among the runs on the instance */
+        public double bestGap;
+        public int provedOptimal;
+
+        Group(String name) {
+            this.name = name;
+        }
+    }
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("jsp-summary").build()
+                .defaultHelp(true)
+                .description("Summarizes the runs of result files, by solver.");
+        parser.addArgument("results")
+                .nargs("+")
+                .help("Result files (.csv or .jsonl) written with --results");
+        parser.addArgument("--by-instance")
+                .action(Arguments.storeTrue())
+                .help("Reports each instance of each solver separately");
+
+        Namespace ns = null;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+        PrintStream output = System.out;
+
+        try {
+            List<RunRecord> records = new ArrayList<>();
+            for(String file : ns.<String>getList("results"))
+                records.addAll(ResultSink.read(Paths.get(file)));
+            Function<RunRecord, String> key = ns.getBoolean("by_instance")
+                    ? r -> r.solver + " " + r.instance
+                    : r -> r.solver;
+
+            output.printf("%-30s %6s %12s %8s %8s %8s%n", "group", "runs", "runtime", "gap", "best gap", "optimal");
+            for(Group group : summarize(records, key)) {
+                output.printf("%-30s %6d %12.3f %7.2f%% %7.2f%% %8d%n", group.name, group.runs, group.runtime,
+                        group.gap, group.bestGap, group.provedOptimal);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /** Aggregates the records by the given key, in the order in which the keys first appear. */
+    public static List<Group> summarize(List<RunRecord> records, Function<RunRecord, String> key) {
+        Map<String, List<RunRecord>> byKey = new LinkedHashMap<>();
+        for(RunRecord r : records)
+            byKey.computeIfAbsent(key.apply(r), k -> new ArrayList<>()).add(r);
+
+        List<Group> groups = new ArrayList<>();
+        for(Map.Entry<String, List<RunRecord>> entry : byKey.entrySet()) {
+            Group group = new Group(entry.getKey());
+            Map<String, Double> bestGaps = new TreeMap<>();
+            for(RunRecord r : entry.getValue()) {
+                group.runs++;
+                group.runtime += r.runtime;
+                group.gap += r.gap;
+                if(r.exitCause.equals(Result.ExitCause.ProvedOptimal.name()))
+                    group.provedOptimal++;
+                bestGaps.merge(r.instance, r.gap, Math::min);
+            }
+            group.runtime /= group.runs;
+            group.gap /= group.runs;
+            for(double gap : bestGaps.values())
+                group.bestGap += gap / bestGaps.size();
+            groups.add(group);
+        }
+        return groups;
+    }
+}
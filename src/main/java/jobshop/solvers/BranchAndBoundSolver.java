@@ -0,0 +1,462 @@
+package jobshop.solvers;
+
+import jobshop.Clock;
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Exact depth-first branch and bound on the disjunctive graph (Balas 1969).
+ *
+ * Each node holds a complete (acyclic) selection, i.e. a sequence of jobs on every machine, and a set of fixed
+ * disjunctions. The makespan of the selection is an upper bound. A selection with a smaller makespan must reverse at
+ * least one arc of the critical path that is not fixed, and the arcs of the critical path all lie inside critical blocks.
+ * If the critical arcs that are not fixed are a_1 ... a_k, the i-th child fixes a_1 ... a_(i-1) as they are and
+ * reverses a_i (which always keeps the selection acyclic), so that the children partition the remaining search space.
+ *
+ * The lower bound of a node only relies on the fixed disjunctions : heads and tails are computed on the graph made of
+ * the job arcs and the fixed arcs, and each machine gives a preemptive one-machine bound (see OneMachine).
+ *
+ * The initial upper bound is provided by a TabooSolver. When the tree has been exhausted before the deadline, the best
+ * solution is optimal and the solver exits with ProvedOptimal.
+ *
+ * With a parallelism greater than one, the top of the tree is split into tasks on a ForkJoin pool (work stealing),
+ * all sharing the incumbent.
+ *
+ * The same search, restricted to a part of a solution and to a number of nodes, is used as the exact sub-solver of
+ * the large neighborhood search (see `reoptimize` and LnsSolver).
+ */
+public class BranchAndBoundSolver implements Solver {
+
+    /** Nodes deeper than this are explored sequentially by the task that reached them. */
+    private static final int SPLIT_DEPTH = 8;
+
+    private final int parallelism;
+    private final Solver upperBoundSolver;
+
+    public BranchAndBoundSolver() {
+        this(1);
+    }
+
+    public BranchAndBoundSolver(int parallelism) {
+        this(parallelism, new TabooSolver(10, 500));
+    }
+
+    public BranchAndBoundSolver(int parallelism, Solver upperBoundSolver) {
+        this.parallelism = parallelism;
+        this.upperBoundSolver = upperBoundSolver;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        ResourceOrder initial = new ResourceOrder(upperBoundSolver.solve(instance, deadline).schedule);
+        Incumbent incumbent = new Incumbent(instance, deadline, Long.MAX_VALUE, initial);
+        Node root = new Node(incumbent, initial);
+
+        if(incumbent.makespan.get() == LowerBound.of(instance)) {
+            // the initial solution is already optimal
+            return new Result(instance, initial.toSchedule(), Result.ExitCause.ProvedOptimal);
+        } else if(parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new Subtree(root, 0));
+            } finally {
+                pool.shutdownNow();
+            }
+        } else {
+            root.search(0, false);
+        }
+
+        Result.ExitCause cause = incumbent.aborted ? Result.ExitCause.Timeout : Result.ExitCause.ProvedOptimal;
+        return new Result(instance, incumbent.toResourceOrder().toSchedule(), cause).withStat("nodes", incumbent.nodes.get());
+    }
+
+    /** Reoptimizes a part of the given solution : on each machine m, the tasks at positions from[m] (included) to
+     * to[m] (excluded) are free to be reordered, while all other disjunctions keep their direction in the solution.
+     * The search is sequential and stops after `maxNodes` nodes or at the deadline.
+     * Returns the best solution found other than the given one, provided that its makespan is not larger (which lets
+     * a local search move on plateaus of the makespan), or null if there is none. */
+    static ResourceOrder reoptimize(ResourceOrder order, int[] from, int[] to, long maxNodes, long deadline) {
+        Instance instance = order.instance;
+        Incumbent incumbent = new Incumbent(instance, deadline, maxNodes, order);
+        int initialMakespan = incumbent.makespan.get();
+        // any other solution at least as good is accepted
+        incumbent.makespan.set(initialMakespan + 1);
+        incumbent.ignoreRoot = true;
+        Node root = new Node(incumbent, order);
+        // the fixed tasks of a machine are chained, and the free ones placed between their fixed neighbors
+        // (transitive arcs are implied, the bound being computed on longest paths)
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int[] seq = root.seq[m];
+            for(int i = 0 ; i + 1 < seq.length ; i++) {
+                if(i < from[m] || i + 1 >= to[m])
+                    root.fixed[m][seq[i]][seq[i + 1]] = true;
+            }
+            for(int i = from[m] ; i < to[m] ; i++) {
+                if(from[m] > 0)
+                    root.fixed[m][seq[from[m] - 1]][seq[i]] = true;
+                if(to[m] < seq.length)
+                    root.fixed[m][seq[i]][seq[to[m]]] = true;
+            }
+        }
+        if(root.lowerBound() <= initialMakespan)
+            root.search(0, false);
+        return incumbent.makespan.get() <= initialMakespan ? incumbent.toResourceOrder() : null;
+    }
+
+    /** Best solution found so far, shared by all nodes of the search. */
+    private static class Incumbent {
+        final Instance instance;
+        final long deadline;
+        /** Maximal number of nodes of the search, and number of nodes explored */
+        final long maxNodes;
+        final AtomicLong nodes = new AtomicLong();
+        final AtomicInteger makespan;
+        /** Sequences of jobs on each machine of the best solution */
+        private final int[][] sequences;
+        volatile boolean aborted = false;
+        /** Whether the solution of the root node is not offered (to find another solution) */
+        boolean ignoreRoot = false;
+
+        Incumbent(Instance instance, long deadline, long maxNodes, ResourceOrder order) {
+            this.instance = instance;
+            this.deadline = deadline;
+            this.maxNodes = maxNodes;
+            this.makespan = new AtomicInteger(order.toSchedule().makespan());
+            this.sequences = new int[instance.numMachines][];
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                sequences[m] = new int[order.tasksByMachine[m].length];
+                for(int i = 0 ; i < sequences[m].length ; i++) {
+                    sequences[m][i] = order.tasksByMachine[m][i].job;
+                }
+            }
+        }
+
+        synchronized void offer(int[][] seq, int value) {
+            if(value < makespan.get()) {
+                for(int m = 0 ; m < seq.length ; m++) {
+                    System.arraycopy(seq[m], 0, sequences[m], 0, seq[m].length);
+                }
+                makespan.set(value);
+            }
+        }
+
+        synchronized ResourceOrder toResourceOrder() {
+            ResourceOrder order = new ResourceOrder(instance);
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                for(int job : sequences[m]) {
+                    order.tasksByMachine[m][order.nextFreeSlot[m]++] = new Task(job, instance.task_with_machine(job, m));
+                }
+            }
+            return order;
+        }
+    }
+
+    /** Exploration of the subtree rooted at a node, as a ForkJoin task. */
+    private static class Subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Node node;
+        final int depth;
+
+        Subtree(Node node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            node.search(depth, true);
+        }
+    }
+
+    /** Search state : a complete selection with its fixed disjunctions, modified in place during the search.
+     * The operation (j, t) is identified by instance.operation(j, t). */
+    private static class Node {
+        final Incumbent incumbent;
+        final Instance instance;
+        final int numJobs;
+        final int numOps;
+
+        /** seq[m][i] is the i-th job on machine m, and pos[m][j] the position of job j on machine m (if it visits m). */
+        final int[][] seq;
+        final int[][] pos;
+        /** fixed[m][a][b] is true if job a has been fixed before job b on machine m */
+        final boolean[][][] fixed;
+
+        /** op[m][j] is the operation of job j on machine m */
+        final int[][] op;
+        final int[] machineOf;
+        final int[] jobOf;
+        final int[] duration;
+        /** Whether each operation is the first (resp. last) one of its job (the others have their job predecessor
+         * at o-1 and their job successor at o+1) */
+        final boolean[] firstInJob;
+        final boolean[] lastInJob;
+
+        // buffers
+        final int[] heads;
+        final int[] tails;
+        final int[] topo;
+        final int[] inDegree;
+        final int[] r;
+        final int[] p;
+        final int[] q;
+
+        Node(Incumbent incumbent, ResourceOrder order) {
+            this.incumbent = incumbent;
+            this.instance = incumbent.instance;
+            this.numJobs = instance.numJobs;
+            this.numOps = instance.numOperations;
+            this.seq = new int[instance.numMachines][];
+            this.pos = new int[instance.numMachines][numJobs];
+            this.fixed = new boolean[instance.numMachines][numJobs][numJobs];
+            this.op = new int[instance.numMachines][numJobs];
+            this.machineOf = new int[numOps];
+            this.jobOf = new int[numOps];
+            this.duration = new int[numOps];
+            this.firstInJob = new boolean[numOps];
+            this.lastInJob = new boolean[numOps];
+            for(int o = 0 ; o < numOps ; o++) {
+                machineOf[o] = instance.machineOf(o);
+                jobOf[o] = instance.jobOf(o);
+                duration[o] = instance.durationOf(o);
+                firstInJob[o] = instance.taskOf(o) == 0;
+                lastInJob[o] = instance.taskOf(o) == instance.numTasks(jobOf[o]) - 1;
+                op[machineOf[o]][jobOf[o]] = o;
+            }
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                seq[m] = new int[instance.numOperationsOn(m)];
+                for(int i = 0 ; i < seq[m].length ; i++) {
+                    seq[m][i] = order.tasksByMachine[m][i].job;
+                    pos[m][seq[m][i]] = i;
+                }
+            }
+            this.heads = new int[numOps];
+            this.tails = new int[numOps];
+            this.topo = new int[numOps];
+            this.inDegree = new int[numOps];
+            this.r = new int[numJobs];
+            this.p = new int[numJobs];
+            this.q = new int[numJobs];
+        }
+
+        /** Copy of this node, with its own buffers. */
+        Node(Node other) {
+            this.incumbent = other.incumbent;
+            this.instance = other.instance;
+            this.numJobs = other.numJobs;
+            this.numOps = other.numOps;
+            this.seq = new int[other.seq.length][];
+            this.pos = new int[other.pos.length][];
+            this.fixed = new boolean[other.fixed.length][numJobs][];
+            for(int m = 0 ; m < seq.length ; m++) {
+                seq[m] = other.seq[m].clone();
+                pos[m] = other.pos[m].clone();
+                for(int a = 0 ; a < numJobs ; a++) {
+                    fixed[m][a] = other.fixed[m][a].clone();
+                }
+            }
+            this.op = other.op;
+            this.machineOf = other.machineOf;
+            this.jobOf = other.jobOf;
+            this.duration = other.duration;
+            this.firstInJob = other.firstInJob;
+            this.lastInJob = other.lastInJob;
+            this.heads = new int[numOps];
+            this.tails = new int[numOps];
+            this.topo = new int[numOps];
+            this.inDegree = new int[numOps];
+            this.r = new int[numJobs];
+            this.p = new int[numJobs];
+            this.q = new int[numJobs];
+        }
+
+        void search(int depth, boolean parallel) {
+            if(incumbent.aborted)
+                return;
+            if(Clock.millis() >= incumbent.deadline || incumbent.nodes.incrementAndGet() > incumbent.maxNodes) {
+                incumbent.aborted = true;
+                return;
+            }
+
+            // evaluate the selection of this node and collect the critical arcs that may be reversed,
+            // each identified by its machine and the position of its first operation
+            List<int[]> arcs = new ArrayList<>();
+            int makespan = criticalArcs(arcs);
+            if(depth > 0 || !incumbent.ignoreRoot)
+                incumbent.offer(seq, makespan);
+
+            List<Subtree> subtrees = new ArrayList<>();
+            int fixedArcs = 0;
+            for(int[] arc : arcs) {
+                int m = arc[0];
+                int u = seq[m][arc[1]];
+                int v = seq[m][arc[1] + 1];
+
+                // child : reverse the arc and fix it reversed
+                swap(m, arc[1]);
+                fixed[m][v][u] = true;
+                if(lowerBound() < incumbent.makespan.get()) {
+                    if(parallel && depth < SPLIT_DEPTH) {
+                        subtrees.add(new Subtree(new Node(this), depth + 1));
+                    } else {
+                        search(depth + 1, parallel);
+                    }
+                }
+                fixed[m][v][u] = false;
+                swap(m, arc[1]);
+
+                // the next children keep this arc as it is
+                fixed[m][u][v] = true;
+                fixedArcs++;
+            }
+            for(int i = 0 ; i < fixedArcs ; i++) {
+                int[] arc = arcs.get(i);
+                fixed[arc[0]][seq[arc[0]][arc[1]]][seq[arc[0]][arc[1] + 1]] = false;
+            }
+
+            if(!subtrees.isEmpty()) {
+                RecursiveAction.invokeAll(subtrees);
+            }
+        }
+
+        /** Swaps the jobs at positions i and i+1 on machine m. */
+        private void swap(int m, int i) {
+            int a = seq[m][i];
+            int b = seq[m][i+1];
+            seq[m][i] = b;
+            seq[m][i+1] = a;
+            pos[m][a] = i+1;
+            pos[m][b] = i;
+        }
+
+        /** Computes the heads of the complete selection, returns its makespan and adds the arcs of a critical path
+         * that are not fixed to the given list. */
+        private int criticalArcs(List<int[]> arcs) {
+            int size = 0;
+            for(int o = 0 ; o < numOps ; o++) {
+                int m = machineOf[o];
+                inDegree[o] = (firstInJob[o] ? 0 : 1) + (pos[m][jobOf[o]] > 0 ? 1 : 0);
+                heads[o] = 0;
+                if(inDegree[o] == 0)
+                    topo[size++] = o;
+            }
+            int last = -1;
+            for(int i = 0 ; i < size ; i++) {
+                int o = topo[i];
+                int end = heads[o] + duration[o];
+                if(last < 0 || end > heads[last] + duration[last])
+                    last = o;
+                if(!lastInJob[o]) {
+                    heads[o+1] = Math.max(heads[o+1], end);
+                    if(--inDegree[o+1] == 0)
+                        topo[size++] = o+1;
+                }
+                int m = machineOf[o];
+                int i2 = pos[m][jobOf[o]] + 1;
+                if(i2 < seq[m].length) {
+                    int next = op[m][seq[m][i2]];
+                    heads[next] = Math.max(heads[next], end);
+                    if(--inDegree[next] == 0)
+                        topo[size++] = next;
+                }
+            }
+            assert size == numOps : "selection has a cycle";
+
+            // walk back the critical path from the operation finishing last
+            int cur = last;
+            while(heads[cur] > 0) {
+                if(!firstInJob[cur] && heads[cur-1] + duration[cur-1] == heads[cur]) {
+                    cur = cur - 1;
+                } else {
+                    int m = machineOf[cur];
+                    int i = pos[m][jobOf[cur]] - 1;
+                    int prev = op[m][seq[m][i]];
+                    assert heads[prev] + duration[prev] == heads[cur];
+                    if(!fixed[m][seq[m][i]][seq[m][i+1]])
+                        arcs.add(new int[] {m, i});
+                    cur = prev;
+                }
+            }
+            return heads[last] + duration[last];
+        }
+
+        /** Lower bound of all completions of the fixed disjunctions : one-machine preemptive bounds on the heads and
+         * tails of the graph made of the job arcs and the fixed arcs. */
+        private int lowerBound() {
+            int size = 0;
+            for(int o = 0 ; o < numOps ; o++) {
+                int m = machineOf[o];
+                int j = jobOf[o];
+                int in = firstInJob[o] ? 0 : 1;
+                for(int a = 0 ; a < numJobs ; a++) {
+                    if(fixed[m][a][j])
+                        in++;
+                }
+                inDegree[o] = in;
+                heads[o] = 0;
+                if(in == 0)
+                    topo[size++] = o;
+            }
+            for(int i = 0 ; i < size ; i++) {
+                int o = topo[i];
+                int end = heads[o] + duration[o];
+                if(!lastInJob[o]) {
+                    heads[o+1] = Math.max(heads[o+1], end);
+                    if(--inDegree[o+1] == 0)
+                        topo[size++] = o+1;
+                }
+                int m = machineOf[o];
+                boolean[] after = fixed[m][jobOf[o]];
+                for(int b = 0 ; b < numJobs ; b++) {
+                    if(after[b]) {
+                        int next = op[m][b];
+                        heads[next] = Math.max(heads[next], end);
+                        if(--inDegree[next] == 0)
+                            topo[size++] = next;
+                    }
+                }
+            }
+            if(size < numOps) {
+                // contradictory fixed arcs, no completion
+                return Integer.MAX_VALUE;
+            }
+            for(int i = numOps - 1 ; i >= 0 ; i--) {
+                int o = topo[i];
+                int tail = 0;
+                if(!lastInJob[o])
+                    tail = tails[o+1] + duration[o+1];
+                int m = machineOf[o];
+                boolean[] after = fixed[m][jobOf[o]];
+                for(int b = 0 ; b < numJobs ; b++) {
+                    if(after[b])
+                        tail = Math.max(tail, tails[op[m][b]] + duration[op[m][b]]);
+                }
+                tails[o] = tail;
+            }
+
+            int bound = 0;
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                for(int i = 0 ; i < seq[m].length ; i++) {
+                    int o = op[m][seq[m][i]];
+                    r[i] = heads[o];
+                    p[i] = duration[o];
+                    q[i] = tails[o];
+                }
+                bound = Math.max(bound, OneMachine.preemptiveBound(seq[m].length, r, p, q));
+            }
+            return bound;
+        }
+    }
+}
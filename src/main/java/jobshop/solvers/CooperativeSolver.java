@@ -0,0 +1,14 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+
+/** A solver that can take part in a PortfolioSolver : it offers its improvements to an incumbent shared with the
+ * other members, may use the solutions they found, and stops early when the incumbent is stopped. */
+public interface CooperativeSolver extends Solver {
+
+    /** Same as `solve(Instance, long)`, sharing the search with the other members of a portfolio
+     * (the incumbent may be null, the solver then works alone). */
+    Result solve(Instance instance, long deadline, SharedIncumbent incumbent);
+}
@@ -0,0 +1,188 @@
+package jobshop.solvers;
+
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.neighborhoods.Blocks;
+import jobshop.neighborhoods.Swap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/** Pool of the best distinct solutions met during a search, used to restart stagnating trajectories
+ * (as in i-TSAB, Nowicki and Smutnicki 2005).
+ *
+ * The pool is kept diverse : a solution too close to a member of the pool (see `distance`) can only replace it,
+ * and only if it is better.
+ *
+ * New starting points are generated by path relinking : starting from one elite solution, adjacent tasks are swapped
+ * to put them in the order they have in another elite solution, until half of the way between the two.
+ */
+class ElitePool {
+
+    /** A solution of the pool with its makespan */
+    static class Elite {
+        final ResourceOrder order;
+        final int makespan;
+
+        Elite(ResourceOrder order, int makespan) {
+            this.order = order;
+            this.makespan = makespan;
+        }
+    }
+
+    private final int capacity;
+    private final List<Elite> elites = new ArrayList<>();
+
+    ElitePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    List<Elite> elites() {
+        return Collections.unmodifiableList(elites);
+    }
+
+    int size() {
+        return elites.size();
+    }
+
+    /** Number of tasks that are not at the same position on their machine in the two solutions. */
+    static int distance(ResourceOrder a, ResourceOrder b) {
+        int distance = 0;
+        for(int m = 0 ; m < a.instance.numMachines ; m++) {
+            for(int i = 0 ; i < a.tasksByMachine[m].length ; i++) {
+                if(!a.tasksByMachine[m][i].equals(b.tasksByMachine[m][i]))
+                    distance++;
+            }
+        }
+        return distance;
+    }
+
+    /** Offers a solution to the pool, that keeps a copy of it if it is good and different enough from the elites.
+     * Returns true if the solution was added. */
+    boolean offer(ResourceOrder order, int makespan) {
+        int minDistance = Math.max(1, order.instance.numOperations / 20);
+
+        // a close solution can only be replaced by a better one
+        for(int i = 0 ; i < elites.size() ; i++) {
+            if(distance(order, elites.get(i).order) < minDistance) {
+                if(makespan < elites.get(i).makespan) {
+                    elites.set(i, new Elite(order.copy(), makespan));
+                    return true;
+                }
+                return false;
+            }
+        }
+        if(elites.size() < capacity) {
+            elites.add(new Elite(order.copy(), makespan));
+            return true;
+        }
+        // otherwise, replace the worst elite
+        int worst = 0;
+        for(int i = 1 ; i < elites.size() ; i++) {
+            if(elites.get(i).makespan > elites.get(worst).makespan)
+                worst = i;
+        }
+        if(makespan < elites.get(worst).makespan) {
+            elites.set(worst, new Elite(order.copy(), makespan));
+            return true;
+        }
+        return false;
+    }
+
+    /** Appends an elite saved from another pool (see TabooCheckpoint), without any check. */
+    void restore(ResourceOrder order, int makespan) {
+        elites.add(new Elite(order, makespan));
+    }
+
+    /** Returns a new starting point, on the path between two random elites. Requires at least two elites in the pool. */
+    ResourceOrder restartPoint(Random random) {
+        int a = random.nextInt(elites.size());
+        int b = random.nextInt(elites.size() - 1);
+        if(b >= a)
+            b++;
+        return relink(elites.get(a).order, elites.get(b).order, random);
+    }
+
+    /** Path relinking : walks from `from` towards `to` by swapping adjacent tasks that are in the opposite order in `to`,
+     * until half of the pairs of tasks that are in a different order have been reordered.
+     * Swaps on the critical path are preferred (they always keep the solution feasible). */
+    static ResourceOrder relink(ResourceOrder from, ResourceOrder to, Random random) {
+        ResourceOrder current = from.copy();
+        int numJobs = from.instance.numJobs;
+
+        // position of each task on its machine in the target solution
+        int[][] target = new int[numJobs][from.instance.numTasks];
+        for(int m = 0 ; m < from.instance.numMachines ; m++) {
+            for(int i = 0 ; i < to.tasksByMachine[m].length ; i++) {
+                Task t = to.tasksByMachine[m][i];
+                target[t.job][t.task] = i;
+            }
+        }
+
+        // number of pairs of tasks in a different order in the two solutions, each step reduces it by one
+        int pairDistance = 0;
+        for(int m = 0 ; m < from.instance.numMachines ; m++) {
+            for(int i = 0 ; i < current.tasksByMachine[m].length ; i++) {
+                for(int k = i + 1 ; k < current.tasksByMachine[m].length ; k++) {
+                    if(inverted(current, m, i, k, target))
+                        pairDistance++;
+                }
+            }
+        }
+
+        Blocks blocks = new Blocks();
+        for(int step = 0 ; step < pairDistance / 2 ; step++) {
+            Schedule schedule = current.toSchedule();
+
+            // swaps in the critical blocks that bring the solution closer to the target
+            List<Swap> candidates = new ArrayList<>();
+            blocks.find(current, schedule);
+            for(int b = 0 ; b < blocks.size() ; b++) {
+                for(int i = blocks.first(b) ; i < blocks.last(b) ; i++) {
+                    if(inverted(current, blocks.machine(b), i, i + 1, target))
+                        candidates.add(new Swap(blocks.machine(b), i, i + 1));
+                }
+            }
+            if(!candidates.isEmpty()) {
+                candidates.get(random.nextInt(candidates.size())).applyOn(current);
+                continue;
+            }
+
+            // otherwise, any other swap closer to the target that does not create a cycle
+            if(!swapAnyInverted(current, target, random)) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    /** True if the tasks at positions i and k on machine m are in the opposite order in the target */
+    private static boolean inverted(ResourceOrder order, int m, int i, int k, int[][] target) {
+        Task a = order.tasksByMachine[m][i];
+        Task b = order.tasksByMachine[m][k];
+        return (target[a.job][a.task] > target[b.job][b.task]) == (i < k);
+    }
+
+    /** Applies a feasible swap of two adjacent tasks in the opposite order in the target,
+     * starting the search from a random machine. Returns false if there is none. */
+    private static boolean swapAnyInverted(ResourceOrder order, int[][] target, Random random) {
+        int numMachines = order.instance.numMachines;
+        int first = random.nextInt(numMachines);
+        for(int k = 0 ; k < numMachines ; k++) {
+            int m = (first + k) % numMachines;
+            for(int i = 0 ; i < order.tasksByMachine[m].length - 1 ; i++) {
+                if(inverted(order, m, i, i + 1, target)) {
+                    Swap swap = new Swap(m, i, i + 1);
+                    swap.applyOn(order);
+                    if(order.toSchedule() != null)
+                        return true;
+                    swap.undoOn(order);
+                }
+            }
+        }
+        return false;
+    }
+}
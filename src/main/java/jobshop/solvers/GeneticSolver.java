@@ -0,0 +1,294 @@
+package jobshop.solvers;
+
+import jobshop.Clock;
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.DecodeBuffer;
+import jobshop.encodings.JobNumbers;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/** Steady-state genetic algorithm over the job numbers representation.
+ *
+ * Every individual is a permutation with repetition of the job numbers (see JobNumbers), which always decodes
+ * to a feasible schedule, so crossover and mutation never need any repair.
+ *
+ * At each generation, a batch of `batchSize` offspring is bred and evaluated in parallel on the common ForkJoin pool.
+ * Each offspring is bred from its own random stream, drawn in order from the seed : the search only depends on the
+ * seed and on the parameters, not on the number of processors.
+ * Each worker thread reuses its own decoding and crossover buffers, so that evaluating an offspring does not allocate.
+ * Offspring are then inserted one after the other (in a deterministic order) in place of the worst individual
+ * of the population, provided that they are better than it and not already in the population.
+ */
+public class GeneticSolver implements Solver {
+
+    /** Crossover operators on the job numbers representation. */
+    public enum Crossover {
+        /** Generalized Order Crossover (Bierwirth 1995): a substring of the donor is implanted in the receiver,
+         * at the position of its first operation, and its operations are removed from the rest of the receiver. */
+        GOX,
+        /** Precedence Preservative Crossover (Bierwirth et al. 1996): the offspring is built from left to right,
+         * each gene being the leftmost remaining operation of a randomly chosen parent. */
+        PPX
+    }
+
+    private final Crossover crossover;
+    private final int populationSize;
+    private final double mutationRate;
+    /** Number of offspring bred at each generation (enough to keep the processors busy) */
+    private final int batchSize;
+    /** Maximal number of generations */
+    private final long maxGenerations;
+    private final long seed;
+
+    public GeneticSolver(Crossover crossover, int populationSize) {
+        this(crossover, populationSize, 0.1, 0);
+    }
+
+    /** Breeds half of the population at each generation, until the deadline. */
+    public GeneticSolver(Crossover crossover, int populationSize, double mutationRate, long seed) {
+        this(crossover, populationSize, mutationRate, Math.max(1, populationSize / 2), Long.MAX_VALUE, seed);
+    }
+
+    public GeneticSolver(Crossover crossover, int populationSize, double mutationRate, int batchSize,
+                         long maxGenerations, long seed) {
+        this.crossover = crossover;
+        this.populationSize = populationSize;
+        this.mutationRate = mutationRate;
+        this.batchSize = batchSize;
+        this.maxGenerations = maxGenerations;
+        this.seed = seed;
+    }
+
+    @Override
+    public GeneticSolver withSeed(long seed) {
+        return new GeneticSolver(crossover, populationSize, mutationRate, batchSize, maxGenerations, seed);
+    }
+
+    /** Buffers owned by a single worker thread. */
+    static class Workspace {
+        // decoding buffers
+        final DecodeBuffer decodeBuffer;
+        // crossover buffers: occurrences of each job, operations identifiers of each parent,
+        // and operations already in the offspring
+        final int[] counters;
+        final int[] ops1;
+        final int[] ops2;
+        final boolean[] taken;
+
+        Workspace(Instance instance) {
+            int numOps = instance.numOperations;
+            decodeBuffer = new DecodeBuffer(instance);
+            counters = new int[instance.numJobs];
+            ops1 = new int[numOps];
+            ops2 = new int[numOps];
+            taken = new boolean[numOps];
+        }
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(instance));
+        int numOps = instance.numOperations;
+
+        // initial population: the EST_LRPT greedy solution and random permutations
+        int[][] population = new int[populationSize][];
+        int[] fitness = new int[populationSize];
+        population[0] = new JobNumbers(new GreedySolver(Priority.EST_LRPT).solve(instance, deadline).schedule).jobs;
+        for(int i = 1 ; i < populationSize ; i++) {
+            population[i] = randomIndividual(instance, random);
+        }
+        IntStream.range(0, populationSize).parallel()
+                .forEach(i -> fitness[i] = evaluate(instance, population[i], workspaces.get(), Encoding.INFEASIBLE));
+
+        // offspring of a generation, with the seed of the random stream used to breed each of them
+        int[][] offspring = new int[batchSize][numOps];
+        int[] offspringFitness = new int[batchSize];
+        long[] offspringSeeds = new long[batchSize];
+
+        int lowerBound = LowerBound.of(instance);
+        Result.ExitCause cause = Result.ExitCause.Timeout;
+        long generations = 0;
+
+        while(Clock.millis() < deadline) {
+            if(Arrays.stream(fitness).min().getAsInt() == lowerBound) {
+                cause = Result.ExitCause.ProvedOptimal;
+                break;
+            }
+            if(generations >= maxGenerations) {
+                cause = Result.ExitCause.Blocked;
+                break;
+            }
+            for(int i = 0 ; i < batchSize ; i++) {
+                offspringSeeds[i] = random.nextLong();
+            }
+            // the worst fitness can only decrease during the replacement, so an offspring that is not better than
+            // the current worst will never enter the population : its decoding can stop as soon as this is proved
+            int cutoff = Arrays.stream(fitness).max().getAsInt();
+
+            // breeding and evaluation only read the population, so offspring can be processed independently
+            IntStream.range(0, batchSize).parallel().forEach(i -> {
+                Workspace ws = workspaces.get();
+                SplittableRandom rand = new SplittableRandom(offspringSeeds[i]);
+                int[] p1 = population[tournament(fitness, rand)];
+                int[] p2 = population[tournament(fitness, rand)];
+                if(crossover == Crossover.GOX) {
+                    gox(instance, p1, p2, offspring[i], rand, ws);
+                } else {
+                    ppx(instance, p1, p2, offspring[i], rand, ws);
+                }
+                if(rand.nextDouble() < mutationRate) {
+                    mutate(offspring[i], rand);
+                }
+                offspringFitness[i] = evaluate(instance, offspring[i], ws, cutoff);
+            });
+
+            // steady-state replacement of the worst individuals
+            for(int i = 0 ; i < batchSize ; i++) {
+                int worst = 0;
+                for(int j = 1 ; j < populationSize ; j++) {
+                    if(fitness[j] > fitness[worst])
+                        worst = j;
+                }
+                if(offspringFitness[i] < fitness[worst] && !contains(population, fitness, offspring[i], offspringFitness[i])) {
+                    System.arraycopy(offspring[i], 0, population[worst], 0, numOps);
+                    fitness[worst] = offspringFitness[i];
+                }
+            }
+            generations++;
+        }
+
+        int best = 0;
+        for(int i = 1 ; i < populationSize ; i++) {
+            if(fitness[i] < fitness[best])
+                best = i;
+        }
+        JobNumbers sol = new JobNumbers(instance);
+        System.arraycopy(population[best], 0, sol.jobs, 0, numOps);
+        sol.nextToSet = numOps;
+
+        return new Result(instance, sol.toSchedule(), cause).withStat("generations", generations);
+    }
+
+    private static int evaluate(Instance instance, int[] jobs, Workspace ws, int cutoff) {
+        return JobNumbers.makespan(instance, jobs, ws.decodeBuffer, cutoff);
+    }
+
+    private static int[] randomIndividual(Instance instance, SplittableRandom random) {
+        int[] jobs = new int[instance.numOperations];
+        for(int i = 0 ; i < jobs.length ; i++) {
+            jobs[i] = instance.jobOf(i);
+        }
+        // Fisher–Yates shuffle
+        for(int i = jobs.length - 1 ; i > 0 ; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = jobs[i];
+            jobs[i] = jobs[j];
+            jobs[j] = tmp;
+        }
+        return jobs;
+    }
+
+    /** Binary tournament: returns the index of the best of two random individuals. */
+    private static int tournament(int[] fitness, SplittableRandom random) {
+        int a = random.nextInt(fitness.length);
+        int b = random.nextInt(fitness.length);
+        return fitness[a] <= fitness[b] ? a : b;
+    }
+
+    /** Returns true if an individual with the same genes is already present in the population. */
+    private static boolean contains(int[][] population, int[] fitness, int[] jobs, int makespan) {
+        for(int i = 0 ; i < population.length ; i++) {
+            if(fitness[i] == makespan && Arrays.equals(population[i], jobs))
+                return true;
+        }
+        return false;
+    }
+
+    /** Fills `ops` with the identifiers of the operations of the sequence :
+     * the k-th occurrence of job j is the operation (j, k), identified by instance.operation(j, k). */
+    private static void operations(Instance instance, int[] jobs, int[] ops, int[] counters) {
+        Arrays.fill(counters, 0, instance.numJobs, 0);
+        for(int i = 0 ; i < jobs.length ; i++) {
+            ops[i] = instance.operation(jobs[i], counters[jobs[i]]++);
+        }
+    }
+
+    static void gox(Instance instance, int[] receiver, int[] donor, int[] child, SplittableRandom random, Workspace ws) {
+        int n = child.length;
+        operations(instance, receiver, ws.ops1, ws.counters);
+        operations(instance, donor, ws.ops2, ws.counters);
+
+        // substring of the donor, of length between a third and a half of the sequence
+        int length = Math.max(1, n / 3 + random.nextInt(Math.max(1, n / 2 - n / 3 + 1)));
+        int start = random.nextInt(n - length + 1);
+        for(int i = start ; i < start + length ; i++) {
+            ws.taken[ws.ops2[i]] = true;
+        }
+
+        // the substring is implanted where its first operation was in the receiver
+        int insertAt = 0;
+        for(int i = 0 ; ws.ops1[i] != ws.ops2[start] ; i++) {
+            if(!ws.taken[ws.ops1[i]])
+                insertAt++;
+        }
+
+        int next = 0;
+        for(int i = 0 ; i < n ; i++) {
+            if(next == insertAt) {
+                System.arraycopy(donor, start, child, next, length);
+                next += length;
+            }
+            if(!ws.taken[ws.ops1[i]])
+                child[next++] = receiver[i];
+        }
+        if(next == insertAt) {
+            System.arraycopy(donor, start, child, next, length);
+        }
+
+        for(int i = start ; i < start + length ; i++) {
+            ws.taken[ws.ops2[i]] = false;
+        }
+    }
+
+    static void ppx(Instance instance, int[] p1, int[] p2, int[] child, SplittableRandom random, Workspace ws) {
+        operations(instance, p1, ws.ops1, ws.counters);
+        operations(instance, p2, ws.ops2, ws.counters);
+
+        int i1 = 0;
+        int i2 = 0;
+        for(int i = 0 ; i < child.length ; i++) {
+            int op;
+            if(random.nextBoolean()) {
+                while(ws.taken[ws.ops1[i1]]) i1++;
+                op = ws.ops1[i1];
+            } else {
+                while(ws.taken[ws.ops2[i2]]) i2++;
+                op = ws.ops2[i2];
+            }
+            ws.taken[op] = true;
+            child[i] = instance.jobOf(op);
+        }
+        Arrays.fill(ws.taken, false);
+    }
+
+    /** Moves a random gene to another random position. */
+    private static void mutate(int[] jobs, SplittableRandom random) {
+        int from = random.nextInt(jobs.length);
+        int to = random.nextInt(jobs.length);
+        int job = jobs[from];
+        if(from < to) {
+            System.arraycopy(jobs, from + 1, jobs, from, to - from);
+        } else {
+            System.arraycopy(jobs, to, jobs, to + 1, from - to);
+        }
+        jobs[to] = job;
+    }
+}
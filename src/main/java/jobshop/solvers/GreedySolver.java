@@ -59,10 +59,8 @@ public class GreedySolver implements Solver {
                     int EST_LRPT = 0 ;
                     for (Task currentTask : selectedTasks) {
                         if (currentTask != null) {
-                            int jobDuration = 0;
-                            for(int t = currentTask.task; t<instance.numTasks; t++) {
-                                jobDuration += instance.duration(currentTask.job, t) ;
-                            }
+                            //remaining duration of the job, from this task on
+                            int jobDuration = instance.duration(currentTask) + instance.jobSuffix(currentTask.job, currentTask.task);
                             if (jobDuration > EST_LRPT) {
                                 EST_LRPT = jobDuration;
                                 taskPrio = currentTask ;
@@ -75,7 +73,7 @@ public class GreedySolver implements Solver {
                     int SPT = Integer.MAX_VALUE ;
                     //iterate on all the doable tasks
                     for(int i = 0;i<instance.numJobs;i++){
-                        if (realisable[i] != instance.numTasks) {
+                        if (realisable[i] != instance.numTasks(i)) {
                             //If the duration of the current doable task is lesser
                             // than the actual SPT, actualize it and
                             if(instance.duration(i, realisable[i]) < SPT){
@@ -91,10 +89,10 @@ public class GreedySolver implements Solver {
                     int LRPT = 0 ;
                     //iterate on all the jobs
                     for (int i = 0; i<instance.numJobs; i++) {
+                        //Compute the remaining time for the current job (none if it is finished)
                         int jobDuration = 0;
-                        //Compute the remaining time for the current job
-                        for(int j = realisable[i]; j<instance.numTasks; j++) {
-                            jobDuration += instance.duration(i, j) ;
+                        if (realisable[i] != instance.numTasks(i)) {
+                            jobDuration = instance.duration(i, realisable[i]) + instance.jobSuffix(i, realisable[i]);
                         }
                         //If it's greater than the current LRPT, update it
                         if (jobDuration > LRPT) {
@@ -121,7 +119,7 @@ public class GreedySolver implements Solver {
             // If not, we get out of the loop.
             hasRealisable = false;
             for (int i = 0; i<instance.numJobs; i++) {
-                if (realisable[i] != instance.numTasks) {
+                if (realisable[i] != instance.numTasks(i)) {
                     hasRealisable = true;
                     break;
                 }
@@ -137,7 +135,7 @@ public class GreedySolver implements Solver {
 
         //We iterate on each job
         for (int j = 0; j<instance.numJobs; j++) {
-            if (realisable[j] != instance.numTasks) {
+            if (realisable[j] != instance.numTasks(j)) {
                 //We get the start time for our current task
                 int currentST = Math.max(endJobs[j], releaseTimeOfMachine[instance.machine(j, realisable[j])]) ;
                 //If found start time is lesser than the one previously found in minEST, we update the minEST value
@@ -152,7 +150,7 @@ public class GreedySolver implements Solver {
         Task[] tasksEST = new Task[instance.numJobs] ;
         //Once again iterate on each job
         for (int j = 0; j<instance.numJobs; j++) {
-            if (realisable[j] != instance.numTasks) {
+            if (realisable[j] != instance.numTasks(j)) {
                 int currentEST = Math.max(endJobs[j], releaseTimeOfMachine[instance.machine(j, realisable[j])]) ;
                 //Select only the tasks having the minimal EST
                 if (currentEST == minEST) {
@@ -0,0 +1,210 @@
+package jobshop.solvers;
+
+import jobshop.Clock;
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Large neighborhood search : parts of the current solution are repeatedly reoptimized by a bounded exact search
+ * (see BranchAndBoundSolver.reoptimize), the rest of the solution being kept fixed.
+ *
+ * A part is a time window of the current schedule : on each machine, the tasks starting in the window are free to be
+ * reordered among themselves. Rounds alternate between narrow windows on all machines and wider windows on a subset
+ * of the machines. Windows are sized to free about `windowTasks` tasks per machine.
+ *
+ * The sub-solver returns another solution as soon as it is not worse : on large instances, the makespan is set by many
+ * critical paths at once and most windows cannot decrease it alone, but moving on these plateaus lets later windows
+ * do it.
+ *
+ * At each round, `windowsPerRound` windows separated by gaps are reoptimized, on `threads` threads. Since a window only reorders tasks
+ * that start in it, and since all the other disjunctions go forward in time, solutions of windows that do not overlap
+ * can be combined without creating a cycle : the combination is kept if it is at least as good as each window alone,
+ * otherwise the best window is. The windows of a round only depend on the seed, so that the search does not depend on
+ * the number of threads.
+ *
+ * In a portfolio, the solutions that improve the current one are offered to the incumbent, and the search stops as
+ * soon as the incumbent is stopped.
+ */
+public class LnsSolver implements CooperativeSolver {
+
+    /** Solver providing the initial solution */
+    private final Solver initialSolver;
+    /** Average number of free tasks per machine in a window */
+    private final int windowTasks;
+    /** Maximal number of nodes of the exact search of a window */
+    private final long maxNodes;
+    /** Maximal number of windows reoptimized at each round */
+    private final int windowsPerRound;
+    /** Number of threads reoptimizing the windows of a round */
+    private final int threads;
+    private final long seed;
+
+    public LnsSolver() {
+        this(new GreedySolver(Priority.EST_LRPT), 3, 100, 8, Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    public LnsSolver(Solver initialSolver, int windowTasks, long maxNodes, int windowsPerRound, int threads, long seed) {
+        this.initialSolver = initialSolver;
+        this.windowTasks = windowTasks;
+        this.maxNodes = maxNodes;
+        this.windowsPerRound = windowsPerRound;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /** Same search, whose windows (and initial solution, if it is random) are drawn from the given seed */
+    @Override
+    public LnsSolver withSeed(long seed) {
+        return new LnsSolver(initialSolver.withSeed(seed), windowTasks, maxNodes, windowsPerRound, threads, seed);
+    }
+
+    /** Free part of a solution : on machine m, the tasks at positions from[m] (included) to to[m] (excluded) */
+    private static class Window {
+        final int[] from;
+        final int[] to;
+
+        Window(int numMachines) {
+            this.from = new int[numMachines];
+            this.to = new int[numMachines];
+        }
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, null);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SharedIncumbent incumbent) {
+        Random random = new Random(seed);
+        ResourceOrder current = new ResourceOrder(initialSolver.solve(instance, deadline).schedule);
+        Schedule schedule = current.toSchedule();
+        int lowerBound = LowerBound.of(instance);
+        if(incumbent != null)
+            incumbent.offer(schedule);
+
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        int round = 0;
+        try {
+            for( ; schedule.makespan() > lowerBound && Clock.millis() < deadline
+                    && (incumbent == null || !incumbent.isStopped()) ; round++) {
+                List<Window> windows = windows(schedule, current, round % 2 == 1, random);
+
+                // reoptimize the windows, in parallel if possible
+                List<ResourceOrder> improved = new ArrayList<>();
+                if(pool == null) {
+                    for(Window w : windows)
+                        improved.add(BranchAndBoundSolver.reoptimize(current, w.from, w.to, maxNodes, deadline));
+                } else {
+                    ResourceOrder order = current;
+                    List<Future<ResourceOrder>> futures = new ArrayList<>();
+                    for(Window w : windows)
+                        futures.add(pool.submit(() -> BranchAndBoundSolver.reoptimize(order, w.from, w.to, maxNodes, deadline)));
+                    for(Future<ResourceOrder> future : futures)
+                        improved.add(future.get());
+                }
+
+                // keep the best of the new solutions and of their combination
+                ResourceOrder best = null;
+                int bestMakespan = schedule.makespan() + 1;
+                ResourceOrder combined = current.copy();
+                int found = 0;
+                for(int i = 0 ; i < windows.size() ; i++) {
+                    ResourceOrder order = improved.get(i);
+                    if(order == null)
+                        continue;
+                    found++;
+                    Window w = windows.get(i);
+                    for(int m = 0 ; m < instance.numMachines ; m++) {
+                        System.arraycopy(order.tasksByMachine[m], w.from[m], combined.tasksByMachine[m], w.from[m], w.to[m] - w.from[m]);
+                    }
+                    int makespan = order.makespan();
+                    if(makespan < bestMakespan) {
+                        best = order;
+                        bestMakespan = makespan;
+                    }
+                }
+                if(found > 1 && combined.makespan() <= bestMakespan) {
+                    best = combined;
+                }
+                if(best != null) {
+                    current = best;
+                    schedule = current.toSchedule();
+                    if(incumbent != null)
+                        incumbent.offer(schedule);
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if(pool != null)
+                pool.shutdown();
+        }
+
+        Result.ExitCause cause = schedule.makespan() == lowerBound ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+        return new Result(instance, schedule, cause).withStat("rounds", round);
+    }
+
+    /** Windows of the round, of width `w` and separated by gaps of width `w` from a random offset, in random order
+     * and up to `windowsPerRound` of them. Only windows freeing at least two tasks on some machine are kept. */
+    private List<Window> windows(Schedule schedule, ResourceOrder order, boolean subsetOfMachines, Random random) {
+        Instance instance = order.instance;
+        int makespan = schedule.makespan();
+        int width = Math.max(1, windowTasks * makespan / instance.numJobs);
+        int numFreeMachines = instance.numMachines;
+        if(subsetOfMachines) {
+            // a quarter of the machines, on windows three times wider
+            numFreeMachines = Math.max(1, instance.numMachines / 4);
+            width *= 3;
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        for(int start = random.nextInt(2 * width) - 2 * width ; start < makespan ; start += 2 * width) {
+            if(start + width > 0)
+                starts.add(start);
+        }
+        Collections.shuffle(starts, random);
+
+        List<Integer> machines = new ArrayList<>();
+        for(int m = 0 ; m < instance.numMachines ; m++)
+            machines.add(m);
+
+        List<Window> windows = new ArrayList<>();
+        for(int start : starts) {
+            if(windows.size() >= Math.max(1, windowsPerRound))
+                break;
+            Collections.shuffle(machines, random);
+            Window window = new Window(instance.numMachines);
+            boolean useful = false;
+            for(int k = 0 ; k < numFreeMachines ; k++) {
+                int m = machines.get(k);
+                // tasks are in increasing order of start time on each machine
+                int from = 0;
+                while(from < order.tasksByMachine[m].length && schedule.startTime(order.tasksByMachine[m][from]) < start)
+                    from++;
+                int to = from;
+                while(to < order.tasksByMachine[m].length && schedule.startTime(order.tasksByMachine[m][to]) < start + width)
+                    to++;
+                window.from[m] = from;
+                window.to[m] = to;
+                useful |= to - from >= 2;
+            }
+            if(useful)
+                windows.add(window);
+        }
+        return windows;
+    }
+}
@@ -0,0 +1,179 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Algorithms for the one-machine problem 1|r_j,q_j|Cmax (equivalent to 1|r_j|Lmax) :
+ * n jobs with release dates r, processing times p and tails q must be sequenced on a single machine,
+ * so as to minimize max_j (C_j + q_j).
+ *
+ * In the job-shop, heads and tails of the operations of one machine are computed on the disjunctive graph,
+ * which makes this problem both a relaxation of the job-shop (lower bounds) and
+ * the subproblem of the shifting bottleneck heuristic.
+ *
+ * All arrays are indexed by job, only the first `n` elements are considered.
+ */
+public final class OneMachine {
+
+    private OneMachine() {}
+
+    /** Schrage's heuristic: whenever the machine is free, start the released job with the largest tail.
+     * Fills `seq` with the resulting sequence of jobs and returns its value. */
+    public static int schrage(int n, int[] r, int[] p, int[] q, int[] seq) {
+        boolean[] done = new boolean[n];
+        int t = 0;
+        int value = 0;
+        for(int k = 0 ; k < n ; k++) {
+            // if no job is released yet, the machine waits for the first release date
+            int firstRelease = Integer.MAX_VALUE;
+            for(int j = 0 ; j < n ; j++) {
+                if(!done[j])
+                    firstRelease = Math.min(firstRelease, r[j]);
+            }
+            t = Math.max(t, firstRelease);
+            // released job with the largest tail
+            int next = -1;
+            for(int j = 0 ; j < n ; j++) {
+                if(!done[j] && r[j] <= t && (next < 0 || q[j] > q[next]))
+                    next = j;
+            }
+            done[next] = true;
+            seq[k] = next;
+            t += p[next];
+            value = Math.max(value, t + q[next]);
+        }
+        return value;
+    }
+
+    /** Value of the optimal preemptive schedule (Jackson's preemptive rule), which is a lower bound of
+     * the non-preemptive problem. */
+    public static int preemptiveBound(int n, int[] r, int[] p, int[] q) {
+        int[] remaining = Arrays.copyOf(p, n);
+        boolean[] done = new boolean[n];
+        int left = n;
+        int t = Integer.MAX_VALUE;
+        for(int j = 0 ; j < n ; j++) {
+            t = Math.min(t, r[j]);
+        }
+        int value = 0;
+        while(left > 0) {
+            // released job with the largest tail, and next release date after t
+            int current = -1;
+            int nextRelease = Integer.MAX_VALUE;
+            for(int j = 0 ; j < n ; j++) {
+                if(done[j])
+                    continue;
+                if(r[j] <= t) {
+                    if(current < 0 || q[j] > q[current])
+                        current = j;
+                } else {
+                    nextRelease = Math.min(nextRelease, r[j]);
+                }
+            }
+            if(current < 0) {
+                t = nextRelease;
+                continue;
+            }
+            // run the job until it completes or until a new job is released
+            int run = (int) Math.min(remaining[current], (long) nextRelease - t);
+            t += run;
+            remaining[current] -= run;
+            if(remaining[current] == 0) {
+                done[current] = true;
+                value = Math.max(value, t + q[current]);
+                left--;
+            }
+        }
+        return value;
+    }
+
+    /** Carlier's branch and bound, stopped after exploring `maxNodes` nodes.
+     * Fills `seq` with the best sequence found and returns its value (which is optimal if the search was not stopped). */
+    public static int carlier(int n, int[] r, int[] p, int[] q, int[] seq, int maxNodes) {
+        Carlier search = new Carlier(n, p, seq, maxNodes);
+        search.explore(Arrays.copyOf(r, n), Arrays.copyOf(q, n));
+        return search.best;
+    }
+
+    private static class Carlier {
+        final int n;
+        final int[] p;
+        final int[] bestSeq;
+        final int[] seq;
+        int best = Integer.MAX_VALUE;
+        int nodesLeft;
+
+        Carlier(int n, int[] p, int[] bestSeq, int maxNodes) {
+            this.n = n;
+            this.p = p;
+            this.bestSeq = bestSeq;
+            this.seq = new int[n];
+            this.nodesLeft = maxNodes;
+        }
+
+        void explore(int[] r, int[] q) {
+            nodesLeft--;
+            int value = schrage(n, r, p, q, seq);
+            if(value < best) {
+                best = value;
+                System.arraycopy(seq, 0, bestSeq, 0, n);
+            }
+
+            // last job b of the critical path, the one realizing the value
+            int[] completion = new int[n];
+            int t = 0;
+            int b = -1;
+            for(int k = 0 ; k < n ; k++) {
+                int j = seq[k];
+                t = Math.max(t, r[j]) + p[j];
+                completion[k] = t;
+                if(t + q[j] == value)
+                    b = k;
+            }
+            // first job a of the critical path : jobs a..b are processed without idle time from r[a]
+            int a = b;
+            while(a > 0 && completion[a - 1] == completion[a] - p[seq[a]]) {
+                a--;
+            }
+            // critical job c : the last one in a..b with a tail smaller than the one of b
+            int c = -1;
+            for(int k = b - 1 ; k >= a ; k--) {
+                if(q[seq[k]] < q[seq[b]]) {
+                    c = k;
+                    break;
+                }
+            }
+            if(c < 0 || nodesLeft <= 0) {
+                // the Schrage schedule is optimal for this node (or the search budget is exhausted)
+                return;
+            }
+
+            // J : jobs processed after c in the critical path
+            int rJ = Integer.MAX_VALUE;
+            int qJ = Integer.MAX_VALUE;
+            int pJ = 0;
+            for(int k = c + 1 ; k <= b ; k++) {
+                int j = seq[k];
+                rJ = Math.min(rJ, r[j]);
+                qJ = Math.min(qJ, q[j]);
+                pJ += p[j];
+            }
+            int jc = seq[c];
+
+            // branch 1 : c is processed after all jobs of J
+            int[] r1 = Arrays.copyOf(r, n);
+            r1[jc] = Math.max(r[jc], rJ + pJ);
+            int lb1 = Math.max(preemptiveBound(n, r1, p, q), Math.min(rJ, r1[jc]) + pJ + p[jc] + Math.min(qJ, q[jc]));
+            if(lb1 < best && nodesLeft > 0) {
+                explore(r1, q);
+            }
+
+            // branch 2 : c is processed before all jobs of J
+            int[] q2 = Arrays.copyOf(q, n);
+            q2[jc] = Math.max(q[jc], qJ + pJ);
+            int lb2 = Math.max(preemptiveBound(n, r, p, q2), Math.min(rJ, r[jc]) + pJ + p[jc] + Math.min(qJ, q2[jc]));
+            if(lb2 < best && nodesLeft > 0) {
+                explore(r, q2);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.neighborhoods.N1;
+import jobshop.neighborhoods.N5;
+import jobshop.neighborhoods.N6;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/** Races several solvers on the same instance, each on its own thread, and returns the best solution found by the
+ * deadline.
+ *
+ * The members share an incumbent (see SharedIncumbent) : cooperative members (see CooperativeSolver) offer their
+ * improvements as they find them and may restart from the solutions of the others, the result of the other members is
+ * offered when they return. All members stop as soon as one of them proves its solution optimal : the other members
+ * cannot be asked to stop, so the portfolio returns without waiting for them, leaving them to end on their own
+ * (on daemon threads, by their deadline at the latest).
+ *
+ * The contribution of each member is accumulated over all the instances solved (see `stats`), to tell which members
+ * are worth their thread on a family of instances.
+ */
+public class PortfolioSolver implements Solver {
+
+    /** Time between two checks of the incumbent while waiting for a member that is not cooperative, in milliseconds */
+    private static final long POLL_MS = 10;
+
+    /** Contribution of a member over all the instances solved by the portfolio */
+    public static final class MemberStats {
+        public final String name;
+        /** Number of instances solved */
+        public int solves;
+        /** Number of instances on which the member found the returned solution */
+        public int wins;
+        /** Number of times the member improved the incumbent */
+        public int improvements;
+        /** Total time of the last improvement of the incumbent by the member, in milliseconds since the start */
+        public long timeToBest;
+
+        MemberStats(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-16s solves %4d  wins %4d  improvements %6d  avg time to best %8.1f ms",
+                    name, solves, wins, improvements, solves == 0 ? 0.0 : (double) timeToBest / solves);
+        }
+    }
+
+    private final List<String> names;
+    private final List<Solver> members;
+    private final List<MemberStats> stats;
+
+    /** Descent, taboo searches with several tenures and neighborhoods, an elite taboo search and a large neighborhood
+     * search, each from its own initial solution. */
+    public PortfolioSolver() {
+        this(defaultMembers());
+    }
+
+    /** Races the given solvers, by name. The solvers must not be shared with another portfolio, nor with another
+     * thread during the race (their neighborhoods reuse internal buffers). */
+    public PortfolioSolver(Map<String, Solver> members) {
+        this.names = new ArrayList<>(members.keySet());
+        this.members = new ArrayList<>(members.values());
+        this.stats = new ArrayList<>();
+        for(String name : names)
+            stats.add(new MemberStats(name));
+    }
+
+    private PortfolioSolver(List<String> names, List<Solver> members, List<MemberStats> stats) {
+        this.names = names;
+        this.members = members;
+        this.stats = stats;
+    }
+
+    /** Same portfolio, whose members make their random choices from the given seed.
+     * The contribution of the members is accumulated with that of this portfolio (see `stats`). */
+    @Override
+    public PortfolioSolver withSeed(long seed) {
+        List<Solver> seeded = new ArrayList<>();
+        for(Solver member : members)
+            seeded.add(member.withSeed(seed));
+        return new PortfolioSolver(names, seeded, stats);
+    }
+
+    private static Map<String, Solver> defaultMembers() {
+        Map<String, Solver> members = new LinkedHashMap<>();
+        members.put("descentSB", new DescentSolver(new ShiftingBottleneckSolver()));
+        members.put("taboo5", new TabooSolver(5, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 100));
+        members.put("tabooElite", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 200));
+        members.put("taboo15N1", new TabooSolver(15, Integer.MAX_VALUE, new ShiftingBottleneckSolver(), new N1(), 8, 300));
+        members.put("taboo10N6", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N6(), 8, 200));
+        members.put("lns", new LnsSolver(new GreedySolver(Priority.EST_LRPT), 3, 100, 1, 1, 0));
+        return members;
+    }
+
+    /** Contribution of each member, in the order of the members. */
+    public List<MemberStats> stats() {
+        synchronized (stats) {
+            return Collections.unmodifiableList(new ArrayList<>(stats));
+        }
+    }
+
+    /** Forgets the contribution of the members, e.g. after a warmup. */
+    public void resetStats() {
+        synchronized (stats) {
+            for(int i = 0 ; i < stats.size() ; i++)
+                stats.set(i, new MemberStats(names.get(i)));
+        }
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        SharedIncumbent incumbent = new SharedIncumbent(instance, members.size());
+        ExecutorService pool = Executors.newFixedThreadPool(members.size(), task -> {
+            // members left running after the race must not keep the program alive
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean timeout = false;
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for(int i = 0 ; i < members.size() ; i++) {
+                Solver member = members.get(i);
+                SharedIncumbent view = incumbent.forMember(i);
+                futures.add(pool.submit(() -> {
+                    Result result = member instanceof CooperativeSolver
+                            ? ((CooperativeSolver) member).solve(instance, deadline, view)
+                            : member.solve(instance, deadline);
+                    view.offer(result.schedule);
+                    // an optimal solution cannot be improved by the other members
+                    if(result.cause == Result.ExitCause.ProvedOptimal)
+                        view.stop();
+                    return result;
+                }));
+            }
+            for(int i = 0 ; i < members.size() ; i++) {
+                Result result = await(futures.get(i), members.get(i), incumbent);
+                if(result == null)
+                    continue;
+                timeout |= result.cause == Result.ExitCause.Timeout;
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+
+        synchronized (stats) {
+            for(int i = 0 ; i < members.size() ; i++) {
+                MemberStats s = stats.get(i);
+                s.solves++;
+                s.improvements += incumbent.improvements(i);
+                s.timeToBest += incumbent.lastImprovement(i);
+                if(incumbent.owner() == i)
+                    s.wins++;
+            }
+        }
+
+        Schedule best = incumbent.schedule();
+        // the incumbent is only stopped once it is proved optimal (by a member or by the lower bound)
+        Result.ExitCause cause = incumbent.isStopped() || incumbent.makespan() <= LowerBound.of(instance)
+                ? Result.ExitCause.ProvedOptimal
+                : timeout ? Result.ExitCause.Timeout : Result.ExitCause.Blocked;
+        return new Result(instance, best, cause);
+    }
+
+    /** Result of a member, or null if the member is not cooperative and the incumbent was stopped before it returned
+     * (its solution cannot improve on the incumbent anymore). */
+    private static Result await(Future<Result> future, Solver member, SharedIncumbent incumbent)
+            throws InterruptedException, ExecutionException {
+        if(member instanceof CooperativeSolver)
+            return future.get();
+        while(true) {
+            try {
+                return future.get(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if(incumbent.isStopped()) {
+                    future.cancel(true);
+                    return null;
+                }
+            }
+        }
+    }
+}
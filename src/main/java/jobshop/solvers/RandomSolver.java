@@ -1,50 +1,178 @@
 package jobshop.solvers;
 
 import jobshop.*;
+import jobshop.encodings.DecodeBuffer;
 import jobshop.encodings.JobNumbers;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
+/** Random sampling of the job numbers representation : random permutations are decoded until the deadline
+ * (or until a given number of samples), and the best one is returned.
+ *
+ * Sampling is spread over several threads. Each of them has its own random stream (split from the seed of the solver)
+ * and its own shuffle and decoding buffers, so that drawing and evaluating a sample does not allocate.
+ * The best makespan found by all threads is shared and used as a cutoff to stop decoding bad samples early.
+ *
+ * The returned solution is the first sample (in the order of its thread) of the thread with the smallest index
+ * among those that found the best makespan. It only depends on the seed, the number of threads and the number
+ * of samples drawn by each thread : with a sample budget, runs are reproducible.
+ */
 public class RandomSolver implements Solver {
 
+    /** Number of samples between two checks of the deadline */
+    private static final int CHECK_PERIOD = 256;
+
+    private final long seed;
+    private final int threads;
+    private final long maxSamples;
+
+    public RandomSolver() {
+        this(0, Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE);
+    }
+
+    /** Draws at most `maxSamples` samples in total, split evenly between `threads` threads. */
+    public RandomSolver(long seed, int threads, long maxSamples) {
+        this.seed = seed;
+        this.threads = threads;
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public RandomSolver withSeed(long seed) {
+        return new RandomSolver(seed, threads, maxSamples);
+    }
+
     @Override
     public Result solve(Instance instance, long deadline) {
-        Random generator = new Random(0);
+        int lowerBound = LowerBound.of(instance);
+        // best (makespan, thread) pair found so far, packed as makespan << 32 | thread
+        AtomicLong best = new AtomicLong(key(Integer.MAX_VALUE, Integer.MAX_VALUE));
 
-        JobNumbers sol = new JobNumbers(instance);
+        // random streams are split sequentially, so that each thread always gets the same one
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Sampler> samplers = new ArrayList<>();
+        for(int i = 0 ; i < threads ; i++) {
+            long quota = maxSamples / threads + (i < maxSamples % threads ? 1 : 0);
+            samplers.add(new Sampler(instance, i, quota, root.split(), best, lowerBound, deadline));
+        }
 
-        for(int j = 0 ; j<instance.numJobs ; j++) {
-            for(int t = 0 ; t<instance.numTasks ; t++) {
-                sol.jobs[sol.nextToSet++] = j;
+        if(threads == 1) {
+            samplers.get(0).call();
+        } else {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                pool.invokeAll(samplers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdown();
             }
         }
-        Schedule best = sol.toSchedule();
-        while(deadline - System.currentTimeMillis() > 1) {
-            shuffleArray(sol.jobs, generator);
-            Schedule s = sol.toSchedule();
-            if(s.makespan() < best.makespan()) {
-                best = s;
+
+        // if no sample could be drawn before the deadline, any sequence (here the initial one) is returned
+        int winner = (int) best.get();
+        JobNumbers sol = new JobNumbers(instance);
+        System.arraycopy(winner < threads ? samplers.get(winner).best : samplers.get(0).jobs, 0, sol.jobs, 0, sol.jobs.length);
+        sol.nextToSet = sol.jobs.length;
+
+        Result.ExitCause cause;
+        if((int) (best.get() >>> 32) == lowerBound) {
+            cause = Result.ExitCause.ProvedOptimal;
+        } else if(samplers.stream().allMatch(s -> s.samples >= s.quota)) {
+            cause = Result.ExitCause.Blocked;
+        } else {
+            cause = Result.ExitCause.Timeout;
+        }
+        return new Result(instance, sol.toSchedule(), cause)
+                .withStat("samples", samplers.stream().mapToLong(s -> s.samples).sum());
+    }
+
+    private static long key(int makespan, int thread) {
+        return ((long) makespan << 32) | thread;
+    }
+
+    /** Sampling loop of one thread, with its own random stream and buffers. */
+    private static class Sampler implements Callable<Void> {
+        final Instance instance;
+        final int index;
+        final long quota;
+        final SplittableRandom random;
+        final AtomicLong globalBest;
+        final int lowerBound;
+        final long deadline;
+
+        final DecodeBuffer buffer;
+        final int[] jobs;
+        /** Best sample of this thread, and its makespan */
+        final int[] best;
+        int bestMakespan = Integer.MAX_VALUE;
+        long samples = 0;
+
+        Sampler(Instance instance, int index, long quota, SplittableRandom random, AtomicLong globalBest, int lowerBound, long deadline) {
+            this.instance = instance;
+            this.index = index;
+            this.quota = quota;
+            this.random = random;
+            this.globalBest = globalBest;
+            this.lowerBound = lowerBound;
+            this.deadline = deadline;
+            this.buffer = new DecodeBuffer(instance);
+            this.jobs = new int[instance.numOperations];
+            this.best = new int[jobs.length];
+            for(int i = 0 ; i < jobs.length ; i++) {
+                jobs[i] = instance.jobOf(i);
             }
         }
 
-        return new Result(instance, best, Result.ExitCause.Timeout);
+        @Override
+        public Void call() {
+            while(samples < quota) {
+                if(samples % CHECK_PERIOD == 0 && Clock.millis() >= deadline)
+                    break;
+
+                long global = globalBest.get();
+                int globalMakespan = (int) (global >>> 32);
+                int globalThread = (int) global;
+                // the lower bound has been reached by this thread or by a thread that wins ties against it
+                if(globalMakespan == lowerBound && globalThread <= index)
+                    break;
+
+                // a sample is only useful if it beats the best of this thread, and if it would beat (or win the tie
+                // against) the best of all threads
+                int cutoff = bestMakespan;
+                if(globalThread != index) {
+                    int globalCutoff = globalThread > index && globalMakespan < Integer.MAX_VALUE ? globalMakespan + 1 : globalMakespan;
+                    cutoff = Math.min(cutoff, globalCutoff);
+                }
+
+                shuffle(jobs, random);
+                samples++;
+                // most samples are discarded after decoding a fraction of their tasks
+                int makespan = JobNumbers.makespan(instance, jobs, buffer, cutoff);
+                if(makespan < cutoff) {
+                    bestMakespan = makespan;
+                    System.arraycopy(jobs, 0, best, 0, jobs.length);
+                    long key = key(makespan, index);
+                    globalBest.accumulateAndGet(key, Math::min);
+                }
+            }
+            return null;
+        }
     }
 
     /** Simple Fisher–Yates array shuffling */
-    private static void shuffleArray(int[] array, Random random)
-    {
-        int index;
-        for (int i = array.length - 1; i > 0; i--)
-        {
-            index = random.nextInt(i + 1);
-            if (index != i)
-            {
-                array[index] ^= array[i];
-                array[i] ^= array[index];
-                array[index] ^= array[i];
-            }
+    private static void shuffle(int[] array, SplittableRandom random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int index = random.nextInt(i + 1);
+            int tmp = array[index];
+            array[index] = array[i];
+            array[i] = tmp;
         }
     }
 }
-
-
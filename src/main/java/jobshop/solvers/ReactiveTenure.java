@@ -0,0 +1,210 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/** Taboo tenure adapted to the trajectory of the search (reactive taboo search, Battiti and Tecchiolli 1994).
+ *
+ * Every solution reached by the search is hashed and remembered with the iteration of its last visit, the solutions
+ * first reached longest ago being forgotten past MAX_VISITS of them :
+ *  - when a solution is visited again, the search is cycling and the tenure is increased ;
+ *  - when no solution has been visited again for longer than the average length of the cycles, the tenure is
+ *    decreased back ;
+ *  - when too many solutions have been visited several times, the search is trapped in a region that a longer tenure
+ *    does not leave, and it must escape by a random perturbation (see `visit`).
+ */
+final class ReactiveTenure {
+
+    private static final double INCREASE = 1.1;
+    private static final double DECREASE = 0.9;
+    /** Number of visits after which a solution is often repeated */
+    private static final int REPETITIONS = 3;
+    /** Number of often repeated solutions after which the search escapes */
+    private static final int CHAOS = 3;
+    /** Number of solutions remembered, the ones first reached longest ago being forgotten past it.
+     * Cycles of a taboo search are much shorter, and all the solutions remembered are saved in checkpoints. */
+    static final int MAX_VISITS = 1 << 13;
+    /** Number of slots of the hash table of the visits, which is at most half full */
+    private static final int SLOTS = 2 * MAX_VISITS;
+
+    private final int minTenure;
+    private final int maxTenure;
+    /** Random value of each task at each position on its machine (Zobrist hashing) */
+    private final long[] keys;
+
+    private double tenure;
+    /** Iteration of the last change of the tenure */
+    private int lastChange = 0;
+    /** Moving average of the length of the cycles */
+    private double cycleLength;
+    /** Number of often repeated solutions since the last escape */
+    private int chaotic = 0;
+    // Solutions visited since the last escape, in a hash table with linear probing : in each used slot, the hash of a
+    // solution, the iteration of its last visit and its number of visits (0 in the free slots).
+    private final long[] slotHash = new long[SLOTS];
+    private final int[] slotIteration = new int[SLOTS];
+    private final int[] slotVisits = new int[SLOTS];
+    /** Hashes of the solutions in the table, in the order of their first visit, from index `oldest` (circular) */
+    private final long[] firstVisits = new long[MAX_VISITS];
+    private int oldest = 0;
+    private int size = 0;
+
+    ReactiveTenure(Instance instance, int initialTenure) {
+        this.minTenure = Math.max(1, initialTenure / 2);
+        this.maxTenure = Math.max(2, 4 * initialTenure);
+        this.tenure = initialTenure;
+        this.cycleLength = 2 * initialTenure;
+        Random random = new Random(instance.numJobs * 31L + instance.numMachines);
+        this.keys = new long[instance.numOperations * instance.numJobs];
+        for(int i = 0 ; i < keys.length ; i++)
+            keys[i] = random.nextLong();
+    }
+
+    /** Current tenure, in iterations */
+    int tenure() {
+        return (int) Math.round(tenure);
+    }
+
+    /** Hash of the order : xor of the keys of the tasks at their positions. */
+    long hash(ResourceOrder order) {
+        Instance instance = order.instance;
+        long hash = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < order.tasksByMachine[m].length ; i++) {
+                Task t = order.tasksByMachine[m][i];
+                hash ^= keys[instance.operation(t.job, t.task) * instance.numJobs + i];
+            }
+        }
+        return hash;
+    }
+
+    /** Records that the search reached the order at the given iteration, and adapts the tenure.
+     * Returns true if the search should escape from its current region. */
+    boolean visit(ResourceOrder order, int iteration) {
+        long hash = hash(order);
+        int slot = slot(hash);
+        if(slotVisits[slot] == 0) {
+            add(hash, iteration, 1);
+            if(iteration - lastChange > cycleLength) {
+                tenure = Math.max(minTenure, tenure * DECREASE);
+                lastChange = iteration;
+            }
+            return false;
+        }
+        int length = iteration - slotIteration[slot];
+        slotIteration[slot] = iteration;
+        slotVisits[slot]++;
+        if(slotVisits[slot] == REPETITIONS) {
+            chaotic++;
+            if(chaotic > CHAOS) {
+                chaotic = 0;
+                clear();
+                return true;
+            }
+        }
+        cycleLength = 0.1 * length + 0.9 * cycleLength;
+        tenure = Math.min(maxTenure, Math.max(tenure * INCREASE, tenure + 1));
+        lastChange = iteration;
+        return false;
+    }
+
+    /** Whether the solution with this hash is among the solutions remembered */
+    boolean remembers(long hash) {
+        return slotVisits[slot(hash)] != 0;
+    }
+
+    /** Slot of the solution with this hash, or free slot where it would be added */
+    private int slot(long hash) {
+        int slot = home(hash);
+        while(slotVisits[slot] != 0 && slotHash[slot] != hash)
+            slot = (slot + 1) & (SLOTS - 1);
+        return slot;
+    }
+
+    /** First slot tried for a hash (keys are random, so are their bits) */
+    private static int home(long hash) {
+        return (int) hash & (SLOTS - 1);
+    }
+
+    /** Adds a solution that is not in the table, forgetting the oldest one if the table is full. */
+    private void add(long hash, int iteration, int numVisits) {
+        if(size == MAX_VISITS) {
+            remove(firstVisits[oldest]);
+            oldest = (oldest + 1) % MAX_VISITS;
+            size--;
+        }
+        int slot = slot(hash);
+        slotHash[slot] = hash;
+        slotIteration[slot] = iteration;
+        slotVisits[slot] = numVisits;
+        firstVisits[(oldest + size) % MAX_VISITS] = hash;
+        size++;
+    }
+
+    /** Frees the slot of a solution of the table, and moves back the following solutions of its probe sequence
+     * that would otherwise not be found anymore. */
+    private void remove(long hash) {
+        int free = slot(hash);
+        int next = free;
+        while(true) {
+            next = (next + 1) & (SLOTS - 1);
+            if(slotVisits[next] == 0)
+                break;
+            // the solution in `next` can fill the free slot if the free slot is between its home and `next`
+            int home = home(slotHash[next]);
+            if(((next - home) & (SLOTS - 1)) >= ((next - free) & (SLOTS - 1))) {
+                slotHash[free] = slotHash[next];
+                slotIteration[free] = slotIteration[next];
+                slotVisits[free] = slotVisits[next];
+                free = next;
+            }
+        }
+        slotVisits[free] = 0;
+    }
+
+    private void clear() {
+        Arrays.fill(slotVisits, 0);
+        oldest = 0;
+        size = 0;
+    }
+
+    /** Length of the random walk of an escape */
+    int escapeLength(Random random) {
+        return 1 + random.nextInt(1 + (int) (cycleLength / 2));
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeDouble(tenure);
+        out.writeInt(lastChange);
+        out.writeDouble(cycleLength);
+        out.writeInt(chaotic);
+        // solutions in the order of their first visit, so that they are forgotten in the same order once read
+        out.writeInt(size);
+        for(int i = 0 ; i < size ; i++) {
+            int slot = slot(firstVisits[(oldest + i) % MAX_VISITS]);
+            out.writeLong(slotHash[slot]);
+            out.writeInt(slotIteration[slot]);
+            out.writeInt(slotVisits[slot]);
+        }
+    }
+
+    void read(DataInputStream in) throws IOException {
+        tenure = in.readDouble();
+        lastChange = in.readInt();
+        cycleLength = in.readDouble();
+        chaotic = in.readInt();
+        clear();
+        int numVisits = in.readInt();
+        for(int i = 0 ; i < numVisits ; i++) {
+            long hash = in.readLong();
+            add(hash, in.readInt(), in.readInt());
+        }
+    }
+}
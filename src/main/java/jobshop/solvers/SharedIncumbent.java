@@ -0,0 +1,118 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Schedule;
+
+/** Best solution found by the members of a PortfolioSolver, shared between their threads.
+ *
+ * Each member works on its own view of the incumbent (see `forMember`), so that its improvements are credited to it.
+ * The search of all members should stop as soon as the incumbent is known to be optimal (see `isStopped`).
+ */
+public final class SharedIncumbent {
+
+    /** State common to the views of all members */
+    private static final class Board {
+        final int lowerBound;
+        final long start = System.currentTimeMillis();
+        volatile int makespan = Integer.MAX_VALUE;
+        volatile boolean stopped = false;
+        Schedule schedule;
+        /** Member that found the incumbent, -1 if none */
+        int owner = -1;
+        /** For each member, number of times it improved the incumbent, and time of its last improvement
+         * (in milliseconds since the creation of the incumbent) */
+        final int[] improvements;
+        final long[] lastImprovement;
+
+        Board(int lowerBound, int numMembers) {
+            this.lowerBound = lowerBound;
+            this.improvements = new int[numMembers];
+            this.lastImprovement = new long[numMembers];
+        }
+    }
+
+    private final Board board;
+    /** Member using this view, -1 for the portfolio itself */
+    private final int member;
+
+    /** Creates an empty incumbent for the given number of members. */
+    public SharedIncumbent(Instance instance, int numMembers) {
+        this(new Board(LowerBound.of(instance), numMembers), -1);
+    }
+
+    private SharedIncumbent(Board board, int member) {
+        this.board = board;
+        this.member = member;
+    }
+
+    /** View of the incumbent to give to the i-th member. */
+    public SharedIncumbent forMember(int i) {
+        return new SharedIncumbent(board, i);
+    }
+
+    /** Makespan of the incumbent, Integer.MAX_VALUE if there is none yet. Does not lock. */
+    public int makespan() {
+        return board.makespan;
+    }
+
+    /** Best schedule offered so far, null if there is none. */
+    public Schedule schedule() {
+        synchronized (board) {
+            return board.schedule;
+        }
+    }
+
+    /** Offers a solution, which replaces the incumbent if it is strictly better.
+     * Reaching the lower bound stops the search. Returns true if the incumbent was replaced. */
+    public boolean offer(Schedule schedule) {
+        int makespan = schedule.makespan();
+        if(makespan >= board.makespan)
+            return false;
+        synchronized (board) {
+            if(makespan >= board.makespan)
+                return false;
+            board.schedule = schedule;
+            board.owner = member;
+            if(member >= 0) {
+                board.improvements[member]++;
+                board.lastImprovement[member] = System.currentTimeMillis() - board.start;
+            }
+            board.makespan = makespan;
+        }
+        if(makespan <= board.lowerBound)
+            stop();
+        return true;
+    }
+
+    /** Asks all members to stop, e.g. because one of them proved the incumbent optimal. */
+    public void stop() {
+        board.stopped = true;
+    }
+
+    /** True if the members should stop searching. Does not lock, and may be checked at each iteration. */
+    public boolean isStopped() {
+        return board.stopped;
+    }
+
+    /** Member that found the incumbent, -1 if none. */
+    public int owner() {
+        synchronized (board) {
+            return board.owner;
+        }
+    }
+
+    /** Number of times the member improved the incumbent. */
+    public int improvements(int member) {
+        synchronized (board) {
+            return board.improvements[member];
+        }
+    }
+
+    /** Time of the last improvement of the incumbent by the member, in milliseconds since the start of the race. */
+    public long lastImprovement(int member) {
+        synchronized (board) {
+            return board.lastImprovement[member];
+        }
+    }
+}
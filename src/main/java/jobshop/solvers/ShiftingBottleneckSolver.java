@@ -0,0 +1,263 @@
+package jobshop.solvers;
+
+import jobshop.Clock;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/** Shifting bottleneck heuristic (Adams, Balas and Zawack 1988).
+ *
+ * Machines are sequenced one at a time. At each step, the heads and tails of all operations are computed on the
+ * disjunctive graph containing the job arcs and the sequences of the machines already scheduled. Each remaining machine
+ * then gives a one-machine problem 1|r_j,q_j|Cmax, solved with Carlier's algorithm (see OneMachine). The machine with
+ * the largest value is the bottleneck: its sequence is fixed, and all machines scheduled before it are re-optimized
+ * one after the other, with the sequences of the other machines fixed.
+ *
+ * The result is a complete ResourceOrder, a good starting point for local search (see DescentSolver and TabooSolver).
+ * At the deadline, the machines not scheduled yet are sequenced by increasing heads, which completes the order
+ * without creating a cycle, and the result is returned with the Timeout cause.
+ */
+public class ShiftingBottleneckSolver implements Solver {
+
+    /** Maximum number of nodes explored by the one-machine branch and bound. */
+    private final int maxNodes;
+    /** Number of re-optimization passes over the machines already scheduled, after a bottleneck has been fixed. */
+    private final int reoptimizationPasses;
+
+    public ShiftingBottleneckSolver() {
+        this(100, 1);
+    }
+
+    public ShiftingBottleneckSolver(int maxNodes, int reoptimizationPasses) {
+        this.maxNodes = maxNodes;
+        this.reoptimizationPasses = reoptimizationPasses;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        ResourceOrder order = solveOrder(instance, deadline);
+        Result.ExitCause cause = Clock.millis() < deadline ? Result.ExitCause.Blocked : Result.ExitCause.Timeout;
+        return new Result(instance, order.toSchedule(), cause);
+    }
+
+    /** Builds a complete resource order with the shifting bottleneck heuristic, completed by heads at the deadline. */
+    public ResourceOrder solveOrder(Instance instance, long deadline) {
+        Graph graph = new Graph(instance);
+        boolean[] scheduled = new boolean[instance.numMachines];
+        int[] order = new int[instance.numMachines];
+
+        for(int step = 0 ; step < instance.numMachines ; step++) {
+            graph.computeHeadsAndTails();
+
+            // select the bottleneck : the unscheduled machine whose one-machine problem has the largest value
+            int bottleneck = -1;
+            int bottleneckValue = -1;
+            int[] bottleneckSeq = null;
+            for(int m = 0 ; m < instance.numMachines && Clock.millis() < deadline ; m++) {
+                if(scheduled[m])
+                    continue;
+                int[] seq = new int[instance.numOperationsOn(m)];
+                int value = graph.solveMachine(m, seq, maxNodes);
+                if(value > bottleneckValue) {
+                    bottleneck = m;
+                    bottleneckValue = value;
+                    bottleneckSeq = seq;
+                }
+            }
+            if(Clock.millis() >= deadline) {
+                // the remaining machines follow the heads of the current graph, which is consistent with all its paths
+                for(int m = 0 ; m < instance.numMachines ; m++) {
+                    if(!scheduled[m])
+                        graph.sequence(m, graph.sequenceByHeads(m));
+                }
+                break;
+            }
+            graph.sequence(bottleneck, bottleneckSeq);
+            if(!graph.computeHeadsAndTails()) {
+                // rare case where the one-machine sequence contradicts a path of the graph :
+                // fall back to the order of the heads, which is consistent with all paths
+                graph.unsequence(bottleneck);
+                graph.sequence(bottleneck, graph.sequenceByHeads(bottleneck));
+            }
+            scheduled[bottleneck] = true;
+            order[step] = bottleneck;
+
+            // re-optimize the machines that were scheduled before, with all the others fixed
+            for(int pass = 0 ; pass < reoptimizationPasses && Clock.millis() < deadline ; pass++) {
+                for(int i = 0 ; i < step && Clock.millis() < deadline ; i++) {
+                    int m = order[i];
+                    int[] previous = graph.unsequence(m);
+                    graph.computeHeadsAndTails();
+                    int[] seq = new int[instance.numOperationsOn(m)];
+                    graph.solveMachine(m, seq, maxNodes);
+                    graph.sequence(m, seq);
+                    if(!graph.computeHeadsAndTails()) {
+                        // the new sequence creates a cycle, keep the previous one
+                        graph.unsequence(m);
+                        graph.sequence(m, previous);
+                    }
+                }
+            }
+        }
+
+        ResourceOrder solution = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int job : graph.sequences[m]) {
+                solution.tasksByMachine[m][solution.nextFreeSlot[m]++] = new Task(job, instance.task_with_machine(job, m));
+            }
+        }
+        return solution;
+    }
+
+    /** Disjunctive graph where only the machines that have been sequenced are oriented.
+     * The operation (j, t) is identified by instance.operation(j, t). */
+    private static class Graph {
+        final Instance instance;
+        final int numOps;
+        /** For each machine, its sequence of jobs (null if the machine is not sequenced yet). */
+        final int[][] sequences;
+        /** Successor and predecessor of each operation on its machine, -1 if none (or machine not sequenced). */
+        final int[] machineSucc;
+        final int[] machinePred;
+        /** Longest path from the source to the start of each operation, and from its end to the sink. */
+        final int[] heads;
+        final int[] tails;
+
+        // buffers for the topological sort and the one-machine problems
+        private final int[] topo;
+        private final int[] inDegree;
+        private final int[] r;
+        private final int[] p;
+        private final int[] q;
+
+        Graph(Instance instance) {
+            this.instance = instance;
+            this.numOps = instance.numOperations;
+            this.sequences = new int[instance.numMachines][];
+            this.machineSucc = new int[numOps];
+            this.machinePred = new int[numOps];
+            Arrays.fill(machineSucc, -1);
+            Arrays.fill(machinePred, -1);
+            this.heads = new int[numOps];
+            this.tails = new int[numOps];
+            this.topo = new int[numOps];
+            this.inDegree = new int[numOps];
+            this.r = new int[instance.numJobs];
+            this.p = new int[instance.numJobs];
+            this.q = new int[instance.numJobs];
+        }
+
+        int op(int job, int task) {
+            return instance.operation(job, task);
+        }
+
+        int duration(int op) {
+            return instance.durationOf(op);
+        }
+
+        /** Whether the operation has a previous (resp. next) task in its job, which is then o-1 (resp. o+1) */
+        boolean hasJobPred(int o) {
+            return instance.taskOf(o) > 0;
+        }
+
+        boolean hasJobSucc(int o) {
+            return instance.taskOf(o) < instance.numTasks(instance.jobOf(o)) - 1;
+        }
+
+        void sequence(int machine, int[] jobs) {
+            sequences[machine] = jobs;
+            for(int i = 0 ; i < jobs.length - 1 ; i++) {
+                int a = op(jobs[i], instance.task_with_machine(jobs[i], machine));
+                int b = op(jobs[i+1], instance.task_with_machine(jobs[i+1], machine));
+                machineSucc[a] = b;
+                machinePred[b] = a;
+            }
+        }
+
+        int[] unsequence(int machine) {
+            int[] jobs = sequences[machine];
+            for(int job : jobs) {
+                int o = op(job, instance.task_with_machine(job, machine));
+                machineSucc[o] = -1;
+                machinePred[o] = -1;
+            }
+            sequences[machine] = null;
+            return jobs;
+        }
+
+        /** Computes heads and tails with a topological sort. Returns false if the graph has a cycle. */
+        boolean computeHeadsAndTails() {
+            int size = 0;
+            for(int o = 0 ; o < numOps ; o++) {
+                inDegree[o] = (hasJobPred(o) ? 1 : 0) + (machinePred[o] >= 0 ? 1 : 0);
+                if(inDegree[o] == 0)
+                    topo[size++] = o;
+            }
+            for(int i = 0 ; i < size ; i++) {
+                int o = topo[i];
+                if(hasJobSucc(o) && --inDegree[o + 1] == 0)
+                    topo[size++] = o + 1;
+                if(machineSucc[o] >= 0 && --inDegree[machineSucc[o]] == 0)
+                    topo[size++] = machineSucc[o];
+            }
+            if(size < numOps)
+                return false;
+
+            for(int i = 0 ; i < numOps ; i++) {
+                int o = topo[i];
+                int head = 0;
+                if(hasJobPred(o))
+                    head = heads[o - 1] + duration(o - 1);
+                if(machinePred[o] >= 0)
+                    head = Math.max(head, heads[machinePred[o]] + duration(machinePred[o]));
+                heads[o] = head;
+            }
+            for(int i = numOps - 1 ; i >= 0 ; i--) {
+                int o = topo[i];
+                int tail = 0;
+                if(hasJobSucc(o))
+                    tail = tails[o + 1] + duration(o + 1);
+                if(machineSucc[o] >= 0)
+                    tail = Math.max(tail, tails[machineSucc[o]] + duration(machineSucc[o]));
+                tails[o] = tail;
+            }
+            return true;
+        }
+
+        /** Sequence of the jobs on the given machine by increasing heads (as computed in the last successful call
+         * to computeHeadsAndTails). */
+        int[] sequenceByHeads(int machine) {
+            return IntStream.range(0, instance.numOperationsOn(machine))
+                    .map(i -> instance.jobOf(instance.operationOn(machine, i))).boxed()
+                    .sorted(Comparator.comparing(j -> heads[op(j, instance.task_with_machine(j, machine))]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /** Solves the one-machine problem of the given machine with the current heads and tails.
+         * Fills `seq` with the sequence of jobs and returns its value. */
+        int solveMachine(int machine, int[] seq, int maxNodes) {
+            int n = instance.numOperationsOn(machine);
+            if(n == 0)
+                return 0;
+            for(int i = 0 ; i < n ; i++) {
+                int o = instance.operationOn(machine, i);
+                r[i] = heads[o];
+                p[i] = duration(o);
+                q[i] = tails[o];
+            }
+            int value = OneMachine.carlier(n, r, p, q, seq, maxNodes);
+            // the one-machine problem sequences the operations of the machine, which are in the order of their jobs
+            for(int k = 0 ; k < n ; k++) {
+                seq[k] = instance.jobOf(instance.operationOn(machine, seq[k]));
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/** State of a TabooSolver search at the beginning of an iteration, saved to a file so that the search can be resumed
+ * after the process was stopped, exactly as if it had not been interrupted.
+ *
+ * The file is a compact binary one : orders are stored as the job of each task of each machine, and only the taboo
+ * entries still active are stored (an entry that expired before the current iteration can never be taboo again).
+ * The state is first written to a temporary file that is then renamed, so that a checkpoint is never left partially
+ * written, even if the process is killed while saving it.
+ */
+final class TabooCheckpoint {
+
+    /** "JSTB" */
+    private static final int MAGIC = 0x4A535442;
+    private static final int VERSION = 1;
+
+    final int iteration;
+    final boolean hasChanged;
+    final ResourceOrder bestOrder;
+    final int bestMakespan;
+    final ResourceOrder currentOrder;
+    /** Iteration until which each swap is taboo (see TabooSolver.visited) */
+    final int[][] visited;
+
+    // elite mode only (null pool otherwise)
+    final ElitePool elitePool;
+    final ResourceOrder trajectoryBestOrder;
+    final int trajectoryBest;
+    final int stagnation;
+    // elite or reactive mode only (null otherwise)
+    final Random random;
+    // reactive mode only (null otherwise)
+    final ReactiveTenure reactiveTenure;
+
+    TabooCheckpoint(int iteration, boolean hasChanged, ResourceOrder bestOrder, int bestMakespan,
+                    ResourceOrder currentOrder, int[][] visited, ElitePool elitePool,
+                    ResourceOrder trajectoryBestOrder, int trajectoryBest, int stagnation, Random random,
+                    ReactiveTenure reactiveTenure) {
+        this.iteration = iteration;
+        this.hasChanged = hasChanged;
+        this.bestOrder = bestOrder;
+        this.bestMakespan = bestMakespan;
+        this.currentOrder = currentOrder;
+        this.visited = visited;
+        this.elitePool = elitePool;
+        this.trajectoryBestOrder = trajectoryBestOrder;
+        this.trajectoryBest = trajectoryBest;
+        this.stagnation = stagnation;
+        this.random = random;
+        this.reactiveTenure = reactiveTenure;
+    }
+
+    /** Saves the state, replacing the file atomically.
+     * @param configuration parameters of the solver, that must be the same to resume the search */
+    void write(Path file, Instance instance, String configuration) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileStream = new FileOutputStream(tmp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(configuration);
+            out.writeInt(instance.numJobs);
+            out.writeInt(instance.numTasks);
+            out.writeInt(fingerprint(instance));
+
+            out.writeInt(iteration);
+            out.writeBoolean(hasChanged);
+            out.writeInt(bestMakespan);
+            writeOrder(out, bestOrder);
+            writeOrder(out, currentOrder);
+            // active taboo entries : (from, to, until)
+            int active = 0;
+            for(int[] row : visited) {
+                for(int until : row) {
+                    if(until > iteration)
+                        active++;
+                }
+            }
+            out.writeInt(active);
+            for(int from = 0 ; from < visited.length ; from++) {
+                for(int to = 0 ; to < visited[from].length ; to++) {
+                    if(visited[from][to] > iteration) {
+                        out.writeInt(from);
+                        out.writeInt(to);
+                        out.writeInt(visited[from][to]);
+                    }
+                }
+            }
+
+            out.writeBoolean(elitePool != null);
+            if(elitePool != null) {
+                out.writeInt(trajectoryBest);
+                out.writeInt(stagnation);
+                writeOrder(out, trajectoryBestOrder);
+                out.writeInt(elitePool.size());
+                for(ElitePool.Elite elite : elitePool.elites()) {
+                    out.writeInt(elite.makespan);
+                    writeOrder(out, elite.order);
+                }
+                writeRandom(out, random);
+            }
+            // the section of the reactive mode is only present in its checkpoints, that of the other modes are unchanged
+            if(reactiveTenure != null) {
+                reactiveTenure.write(out);
+                if(elitePool == null)
+                    writeRandom(out, random);
+            }
+            out.flush();
+            // the data must be on disk before the rename makes it visible
+            fileStream.getFD().sync();
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Reads a state saved by `write`.
+     * @param reactiveTenure tenure of a reactive search, restored from the file (null if the search is not reactive)
+     * @throws IOException if the file is not a checkpoint of the given instance, made with the given configuration */
+    static TabooCheckpoint read(Path file, Instance instance, String configuration, int eliteSize,
+                                ReactiveTenure reactiveTenure) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file + " is not a checkpoint of the taboo search");
+            if(!in.readUTF().equals(configuration))
+                throw new IOException(file + " was saved by a solver with another configuration than " + configuration);
+            if(in.readInt() != instance.numJobs || in.readInt() != instance.numTasks || in.readInt() != fingerprint(instance))
+                throw new IOException(file + " was saved for another instance");
+
+            int iteration = in.readInt();
+            boolean hasChanged = in.readBoolean();
+            int bestMakespan = in.readInt();
+            ResourceOrder bestOrder = readOrder(in, instance);
+            ResourceOrder currentOrder = readOrder(in, instance);
+            int numOps = instance.numOperations;
+            int[][] visited = new int[numOps][numOps];
+            int active = in.readInt();
+            for(int i = 0 ; i < active ; i++) {
+                int from = in.readInt();
+                int to = in.readInt();
+                visited[from][to] = in.readInt();
+            }
+
+            ElitePool elitePool = null;
+            ResourceOrder trajectoryBestOrder = null;
+            int trajectoryBest = 0;
+            int stagnation = 0;
+            Random random = null;
+            if(in.readBoolean()) {
+                trajectoryBest = in.readInt();
+                stagnation = in.readInt();
+                trajectoryBestOrder = readOrder(in, instance);
+                elitePool = new ElitePool(eliteSize);
+                int size = in.readInt();
+                for(int i = 0 ; i < size ; i++) {
+                    int makespan = in.readInt();
+                    elitePool.restore(readOrder(in, instance), makespan);
+                }
+                random = readRandom(in);
+            }
+            if(reactiveTenure != null) {
+                reactiveTenure.read(in);
+                if(elitePool == null)
+                    random = readRandom(in);
+            }
+            return new TabooCheckpoint(iteration, hasChanged, bestOrder, bestMakespan, currentOrder, visited,
+                    elitePool, trajectoryBestOrder, trajectoryBest, stagnation, random, reactiveTenure);
+        }
+    }
+
+    /** java.util.Random does not expose its state, only its serialized form */
+    private static void writeRandom(DataOutputStream out, Random random) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(random);
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private static Random readRandom(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Random) objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Jobs of the tasks of each machine, in order. Jobs are stored on two bytes. */
+    private static void writeOrder(DataOutputStream out, ResourceOrder order) throws IOException {
+        for(int m = 0 ; m < order.instance.numMachines ; m++) {
+            for(int i = 0 ; i < order.tasksByMachine[m].length ; i++) {
+                out.writeShort(order.tasksByMachine[m][i].job);
+            }
+        }
+    }
+
+    private static ResourceOrder readOrder(DataInputStream in, Instance instance) throws IOException {
+        ResourceOrder order = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < instance.numOperationsOn(m) ; i++) {
+                int job = in.readUnsignedShort();
+                order.tasksByMachine[m][i] = new Task(job, instance.task_with_machine(job, m));
+            }
+            order.nextFreeSlot[m] = instance.numOperationsOn(m);
+        }
+        return order;
+    }
+
+    /** Hash of the machines and durations of the instance */
+    private static int fingerprint(Instance instance) {
+        int hash = 1;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                hash = 31 * (31 * hash + instance.machine(j, t)) + instance.duration(j, t);
+            }
+        }
+        return hash;
+    }
+}
@@ -1,94 +1,338 @@
 package jobshop.solvers;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Random;
 
+import jobshop.Clock;
 import jobshop.Instance;
+import jobshop.LowerBound;
 import jobshop.Priority;
 import jobshop.Result;
 import jobshop.Result.ExitCause;
+import jobshop.Schedule;
 import jobshop.Solver;
+import jobshop.encodings.DisjunctiveGraph;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Task;
+import jobshop.jfr.IterationEvent;
+import jobshop.neighborhoods.Move;
+import jobshop.neighborhoods.N1;
+import jobshop.neighborhoods.N5;
+import jobshop.neighborhoods.Neighborhood;
 
-import static jobshop.solvers.DescentSolver.blocksOfCriticalPath;
-import static jobshop.solvers.DescentSolver.neighbors;
-
-public class TabooSolver implements Solver {
+public class TabooSolver implements CooperativeSolver {
 
     private int maxIter;
     private int dureeTaboo;
     private int[][] visited;
+    /** Solver providing the initial solution */
+    private Solver initialSolver;
+    /** Neighborhood explored at each iteration */
+    private Neighborhood neighborhood;
+    /** Number of elite solutions kept to restart stagnating trajectories (0 to disable restarts) */
+    private int eliteSize;
+    /** Number of iterations without improving the best solution of the trajectory before restarting */
+    private int maxStagnation;
+    /** Seed of the random choices of the path relinking */
+    private long seed;
+    /** File where the state of the search is saved (null to disable checkpoints) */
+    private Path checkpointFile;
+    /** Minimal time between two checkpoints, in milliseconds */
+    private long checkpointPeriod;
+    /** Whether the search is resumed from the checkpoint file, if it exists */
+    private boolean resume;
+    /** Whether the tenure adapts to the trajectory (see ReactiveTenure) */
+    private boolean reactive;
 
     public TabooSolver(int dureeTaboo, int maxIter) {
+        this(dureeTaboo, maxIter, new GreedySolver(Priority.EST_LRPT));
+    }
+
+    /** Starts the search from the solution of the given solver (e.g. a ShiftingBottleneckSolver) */
+    public TabooSolver(int dureeTaboo, int maxIter, Solver initialSolver) {
+        this(dureeTaboo, maxIter, initialSolver, new N5());
+    }
+
+    /** Starts the search from the solution of the given solver and explores the given neighborhood (e.g. N1, N5 or N6) */
+    public TabooSolver(int dureeTaboo, int maxIter, Solver initialSolver, Neighborhood neighborhood) {
+        this(dureeTaboo, maxIter, initialSolver, neighborhood, 0, 0);
+    }
+
+    /** Taboo search with an elite pool (i-TSAB style) : when the trajectory has not improved for `maxStagnation`
+     * iterations, or when it is blocked, its best solution is offered to a pool of `eliteSize` elite solutions and
+     * the search restarts from a solution obtained by path relinking between two elites (see ElitePool). */
+    public TabooSolver(int dureeTaboo, int maxIter, Solver initialSolver, Neighborhood neighborhood, int eliteSize, int maxStagnation) {
+        this(dureeTaboo, maxIter, initialSolver, neighborhood, eliteSize, maxStagnation, false);
+    }
+
+    /** Reactive taboo search (if `reactive` is true) : the tenure starts at `dureeTaboo` and adapts to the trajectory,
+     * growing when the search cycles through the same solutions and shrinking back otherwise (see ReactiveTenure).
+     * A taboo move is allowed when it improves the best solution (aspiration), and instead of stopping when every move
+     * is taboo, or when it is trapped in a region, the search escapes by a short random walk on the critical blocks. */
+    public TabooSolver(int dureeTaboo, int maxIter, Solver initialSolver, Neighborhood neighborhood, int eliteSize, int maxStagnation, boolean reactive) {
+        this.reactive = reactive;
         this.maxIter = maxIter;
         this.dureeTaboo = dureeTaboo;
+        this.initialSolver = initialSolver;
+        this.neighborhood = neighborhood;
+        this.eliteSize = eliteSize;
+        this.maxStagnation = maxStagnation;
+        this.seed = 0;
+    }
+
+    /** Saves the state of the search to the given file every `periodMs` milliseconds and when the search stops
+     * (see TabooCheckpoint). If `resume` is true and the file exists, the search continues from the saved state
+     * instead of starting from the initial solution, and behaves exactly as the interrupted search would have
+     * (the deadline and the maximal number of iterations being those of the new call). */
+    public void checkpoint(Path file, long periodMs, boolean resume) {
+        this.checkpointFile = file;
+        this.checkpointPeriod = periodMs;
+        this.resume = resume;
+    }
+
+    /** Same search, whose path relinking and escapes are drawn from the given seed (the checkpoint settings are kept) */
+    @Override
+    public TabooSolver withSeed(long seed) {
+        TabooSolver solver = new TabooSolver(dureeTaboo, maxIter, initialSolver.withSeed(seed), neighborhood, eliteSize,
+                maxStagnation, reactive);
+        solver.seed = seed;
+        solver.checkpoint(checkpointFile, checkpointPeriod, resume);
+        return solver;
+    }
+
+    /** Parameters that change the trajectory of the search : a checkpoint can only be resumed with the same ones */
+    private String configuration() {
+        return "taboo " + dureeTaboo + " " + neighborhood.getClass().getSimpleName() + " elite " + eliteSize
+                + " " + maxStagnation + " seed " + seed + (reactive ? " reactive" : "");
     }
 
     @Override
     public Result solve(Instance instance, long deadline) {
-        //Once again we get our basis solution from the greedy solver
-        GreedySolver greedySolver = new GreedySolver(Priority.EST_LRPT);
-        ResourceOrder bestOrder = new ResourceOrder(greedySolver.solve(instance, System.currentTimeMillis() + 10).schedule);
+        return solve(instance, deadline, null);
+    }
+
+    /** In a portfolio, the best solutions found are offered to the incumbent, and the incumbent of the other members
+     * is offered to the elite pool before each restart. */
+    @Override
+    public Result solve(Instance instance, long deadline, SharedIncumbent incumbent) {
+        //Once again we get our basis solution from the greedy solver (by default)
+        ResourceOrder bestOrder = new ResourceOrder(initialSolver.solve(instance, Clock.millis() + 10).schedule);
         ResourceOrder currentOrder = bestOrder.copy();
+        //makespan of the best solution, kept along with it to avoid decoding it again at each iteration
+        int bestOrderMakespan = bestOrder.makespan();
+        //disjunctive graph of the current solution, on which neighbors are evaluated incrementally
+        DisjunctiveGraph graph = new DisjunctiveGraph(currentOrder);
         //this is the list of all visited swaps.
-        visited = new int[instance.numJobs * instance.numTasks][instance.numJobs * instance.numTasks];
+        visited = new int[instance.numOperations][instance.numOperations];
         int k = 0;
         boolean hasChanged = true;
 
-        while (k<maxIter && (deadline - System.currentTimeMillis() > 1) && hasChanged) {
-            //If no better neighbor was found, we get out of the loop.
-            hasChanged = false;
+        //The search stops as soon as the best solution reaches the lower bound
+        int lowerBound = LowerBound.of(instance);
+        if (bestOrderMakespan == lowerBound) {
+            return new Result(instance, bestOrder.toSchedule(), ExitCause.ProvedOptimal).withStat("iterations", k);
+        }
+
+        //Elite pool, and best solution of the current trajectory
+        ElitePool elitePool = eliteSize > 0 ? new ElitePool(eliteSize) : null;
+        Random random = new Random(seed);
+        ReactiveTenure reactiveTenure = reactive ? new ReactiveTenure(instance, dureeTaboo) : null;
+        Neighborhood escapeMoves = new N1();
+        ResourceOrder trajectoryBestOrder = bestOrder.copy();
+        int trajectoryBest = bestOrderMakespan;
+        int stagnation = 0;
+        if (elitePool != null) {
+            elitePool.offer(bestOrder, trajectoryBest);
+        }
 
-            List<DescentSolver.Block> blocks = blocksOfCriticalPath(currentOrder);
-            List<DescentSolver.Swap> swaps = new ArrayList<>();
-            for (DescentSolver.Block b : blocks) {
-                swaps.addAll(neighbors(b));
+        //The state of an interrupted search replaces the initial one
+        if (resume && checkpointFile != null && Files.exists(checkpointFile)) {
+            TabooCheckpoint state;
+            try {
+                state = TabooCheckpoint.read(checkpointFile, instance, configuration(), eliteSize, reactiveTenure);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            k = state.iteration;
+            hasChanged = state.hasChanged;
+            bestOrder = state.bestOrder;
+            bestOrderMakespan = state.bestMakespan;
+            currentOrder = state.currentOrder;
+            graph = new DisjunctiveGraph(currentOrder);
+            visited = state.visited;
+            if (elitePool != null) {
+                elitePool = state.elitePool;
+                trajectoryBestOrder = state.trajectoryBestOrder;
+                trajectoryBest = state.trajectoryBest;
+                stagnation = state.stagnation;
             }
+            if (state.random != null) {
+                random = state.random;
+            }
+        }
+        long nextCheckpoint = System.currentTimeMillis() + checkpointPeriod;
+        if (incumbent != null) {
+            incumbent.offer(bestOrder.toSchedule());
+        }
 
-            ResourceOrder bestNeighbor = new ResourceOrder(instance);
-            int bestMakespan = Integer.MAX_VALUE;
+        while (k<maxIter && (deadline - Clock.millis() > 1) && hasChanged
+                && (incumbent == null || !incumbent.isStopped())) {
+            //If no better neighbor was found, we get out of the loop.
+            hasChanged = false;
+            IterationEvent event = new IterationEvent();
+            event.begin();
+            int neighbors = 0;
 
-            DescentSolver.Swap bestSwap = null;
+            int bestMakespan = Integer.MAX_VALUE;
+            Move bestMove = null;
             //In this loop, we go through all valid neighbors...
-            for (DescentSolver.Swap currentSwap : swaps) {
-                if (!isTaboo(currentSwap, currentOrder, k)) {
-                    ResourceOrder currentNeighbor = currentOrder.copy();
-                    currentSwap.applyOn(currentNeighbor);
+            for (Move currentMove : neighborhood.neighbors(currentOrder)) {
+                boolean taboo = isTaboo(currentMove, currentOrder, k);
+                //(a reactive search also evaluates taboo moves, that are allowed if they improve the best solution)
+                if (!taboo || reactiveTenure != null) {
+                    //...each being evaluated by applying the move on the graph and reverting it...
+                    //(a move that would create a cycle is rejected by the graph)
+                    if (!currentMove.applyOn(graph)) {
+                        continue;
+                    }
+                    int currentNeighborMakespan = graph.makespan();
+                    currentMove.undoOn(graph);
+                    neighbors++;
                     //...and select the best amongst them.
-                    if (currentNeighbor.toSchedule().makespan() < bestMakespan) {
-                        bestMakespan = currentNeighbor.toSchedule().makespan();
-                        bestNeighbor = currentNeighbor.copy();
-                        bestSwap = currentSwap;
+                    if (currentNeighborMakespan < bestMakespan && (!taboo || currentNeighborMakespan < bestOrderMakespan)) {
+                        bestMakespan = currentNeighborMakespan;
+                        bestMove = currentMove;
                         hasChanged = true;
                     }
                 }
             }
-            //If a better swap has been found, add it to the visited[][] list...
-            if (bestSwap != null) {
-                addTaboo(bestSwap, currentOrder, k);
+            //If a better move has been found, add it to the visited[][] list and move to the neighbor
+            boolean escape = false;
+            if (bestMove != null) {
+                addTaboo(bestMove, currentOrder, k, reactiveTenure != null ? reactiveTenure.tenure() : dureeTaboo);
+                bestMove.applyOn(currentOrder);
+                bestMove.applyOn(graph);
+                escape = reactiveTenure != null && reactiveTenure.visit(currentOrder, k);
+            }
+            if (bestMakespan < bestOrderMakespan) {
+                bestOrder = currentOrder.copy();
+                bestOrderMakespan = bestMakespan;
+                if (incumbent != null) {
+                    incumbent.offer(bestOrder.toSchedule());
+                }
+                if (bestMakespan == lowerBound) {
+                    return new Result(instance, bestOrder.toSchedule(), ExitCause.ProvedOptimal).withStat("iterations", k);
+                }
             }
-            currentOrder = bestNeighbor;
-            if (bestMakespan < bestOrder.toSchedule().makespan()) {
-                bestOrder = bestNeighbor.copy();
+            if (event.shouldCommit()) {
+                event.solver = "TabooSolver";
+                event.iteration = k;
+                event.neighbors = neighbors;
+                event.currentMakespan = bestMakespan;
+                event.bestMakespan = bestOrderMakespan;
+                event.commit();
             }
             k++;
+
+            //With an elite pool, a stagnating or blocked trajectory restarts from a relinked solution
+            if (elitePool != null) {
+                if (bestMakespan < trajectoryBest) {
+                    trajectoryBest = bestMakespan;
+                    trajectoryBestOrder = currentOrder.copy();
+                    stagnation = 0;
+                } else {
+                    stagnation++;
+                }
+                if (!hasChanged || stagnation >= maxStagnation) {
+                    elitePool.offer(trajectoryBestOrder, trajectoryBest);
+                    //a better solution found by another member of the portfolio may serve as a restart point
+                    //(read once : another member may replace the incumbent meanwhile)
+                    Schedule shared = incumbent == null ? null : incumbent.schedule();
+                    if (shared != null && shared.makespan() < bestOrderMakespan) {
+                        elitePool.offer(new ResourceOrder(shared), shared.makespan());
+                    }
+                    if (elitePool.size() >= 2) {
+                        currentOrder = elitePool.restartPoint(random);
+                        trajectoryBestOrder = currentOrder.copy();
+                        graph = new DisjunctiveGraph(currentOrder);
+                        trajectoryBest = graph.makespan();
+                        stagnation = 0;
+                        hasChanged = true;
+                        if (trajectoryBest < bestOrderMakespan) {
+                            bestOrder = currentOrder.copy();
+                            bestOrderMakespan = trajectoryBest;
+                            if (incumbent != null) {
+                                incumbent.offer(bestOrder.toSchedule());
+                            }
+                            if (trajectoryBest == lowerBound) {
+                                return new Result(instance, bestOrder.toSchedule(), ExitCause.ProvedOptimal).withStat("iterations", k);
+                            }
+                        }
+                    }
+                }
+            }
+
+            //A reactive search escapes by a random walk when it is trapped or blocked, instead of stopping
+            if (reactiveTenure != null && (escape || !hasChanged)) {
+                for (int step = reactiveTenure.escapeLength(random); step > 0; step--) {
+                    List<Move> moves = escapeMoves.neighbors(currentOrder);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    moves.get(random.nextInt(moves.size())).applyOn(currentOrder);
+                }
+                graph = new DisjunctiveGraph(currentOrder);
+                hasChanged = true;
+                int makespan = graph.makespan();
+                if (makespan < bestOrderMakespan) {
+                    bestOrder = currentOrder.copy();
+                    bestOrderMakespan = makespan;
+                    if (incumbent != null) {
+                        incumbent.offer(bestOrder.toSchedule());
+                    }
+                    if (makespan == lowerBound) {
+                        return new Result(instance, bestOrder.toSchedule(), ExitCause.ProvedOptimal).withStat("iterations", k);
+                    }
+                }
+            }
+
+            if (checkpointFile != null && System.currentTimeMillis() >= nextCheckpoint) {
+                saveCheckpoint(instance, new TabooCheckpoint(k, hasChanged, bestOrder, bestOrderMakespan, currentOrder,
+                        visited, elitePool, trajectoryBestOrder, trajectoryBest, stagnation, random, reactiveTenure));
+                nextCheckpoint = System.currentTimeMillis() + checkpointPeriod;
+            }
+        }
+        if (checkpointFile != null) {
+            saveCheckpoint(instance, new TabooCheckpoint(k, hasChanged, bestOrder, bestOrderMakespan, currentOrder,
+                    visited, elitePool, trajectoryBestOrder, trajectoryBest, stagnation, random, reactiveTenure));
         }
         ExitCause exit = (k<maxIter ? ExitCause.Timeout : ExitCause.Blocked);
 
-        return new Result(instance, bestOrder.toSchedule(), exit);
+        return new Result(instance, bestOrder.toSchedule(), exit).withStat("iterations", k);
+    }
+
+    private void saveCheckpoint(Instance instance, TabooCheckpoint state) {
+        try {
+            state.write(checkpointFile, instance, configuration());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private void addTaboo(DescentSolver.Swap swap, ResourceOrder order, int k) {
-        Task task1 = order.tasksByMachine[swap.machine][swap.t1];
-        Task task2 = order.tasksByMachine[swap.machine][swap.t2];
-        visited[task2.job * order.instance.numTasks+task2.task][task1.job * order.instance.numTasks + task1.task] = k + dureeTaboo;
+    private void addTaboo(Move move, ResourceOrder order, int k, int tenure) {
+        Task task1 = move.firstTask(order);
+        Task task2 = move.secondTask(order);
+        visited[order.instance.operation(task2.job, task2.task)][order.instance.operation(task1.job, task1.task)] = k + tenure;
     }
 
-    private boolean isTaboo(DescentSolver.Swap swap, ResourceOrder order, int k) {
-        Task task1 = order.tasksByMachine[swap.machine][swap.t1];
-        Task task2 = order.tasksByMachine[swap.machine][swap.t2];
-        return k < visited[task1.job * order.instance.numTasks + task1.task][task2.job * order.instance.numTasks+task2.task];
+    private boolean isTaboo(Move move, ResourceOrder order, int k) {
+        Task task1 = move.firstTask(order);
+        Task task2 = move.secondTask(order);
+        return k < visited[order.instance.operation(task1.job, task1.task)][order.instance.operation(task2.job, task2.task)];
     }
 
 }
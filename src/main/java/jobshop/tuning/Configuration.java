@@ -0,0 +1,24 @@
+package jobshop.tuning;
+
+import jobshop.Solver;
+
+import java.util.function.Supplier;
+
+/** A setting of the parameters of a solver, raced by the tuner (see Race). */
+public final class Configuration {
+
+    /** Name of the configuration, with its parameters, e.g. "taboo tenure=10 maxIter=2000" */
+    public final String name;
+    /** Creates a new solver for each run, so that runs in parallel never share a solver */
+    public final Supplier<Solver> factory;
+
+    public Configuration(String name, Supplier<Solver> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
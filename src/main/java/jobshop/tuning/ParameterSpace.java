@@ -0,0 +1,71 @@
+package jobshop.tuning;
+
+import jobshop.Priority;
+import jobshop.neighborhoods.N5;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.LnsSolver;
+import jobshop.solvers.TabooSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Configurations of the parameterized solvers that can be tuned, as grids of values of their parameters. */
+public final class ParameterSpace {
+
+    private ParameterSpace() {}
+
+    /** Names of the spaces accepted by `configurations` */
+    public static final List<String> spaces = Arrays.asList("taboo", "tabooElite", "tabooReactive", "lns");
+
+    private static final int[] tenures = { 1, 2, 3, 5, 7, 10, 15, 20, 30, 50 };
+    private static final int[] maxIterations = { 500, 2000, 10000 };
+
+    /** All the configurations of the given space.
+     * @throws IllegalArgumentException if the space is unknown */
+    public static List<Configuration> configurations(String space) {
+        List<Configuration> configurations = new ArrayList<>();
+        switch (space) {
+            case "taboo":
+                // the solver of Main, for all the tenures of taboo1 ... taboo50 and several lengths
+                for(int maxIter : maxIterations) {
+                    for(int tenure : tenures) {
+                        configurations.add(new Configuration("taboo tenure=" + tenure + " maxIter=" + maxIter,
+                                () -> new TabooSolver(tenure, maxIter)));
+                    }
+                }
+                break;
+            case "tabooElite":
+                for(int tenure : new int[] { 5, 10, 15, 20 }) {
+                    for(int eliteSize : new int[] { 4, 8 }) {
+                        for(int maxStagnation : new int[] { 100, 200, 500 }) {
+                            configurations.add(new Configuration("tabooElite tenure=" + tenure + " eliteSize=" + eliteSize
+                                    + " maxStagnation=" + maxStagnation,
+                                    () -> new TabooSolver(tenure, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT),
+                                            new N5(), eliteSize, maxStagnation)));
+                        }
+                    }
+                }
+                break;
+            case "tabooReactive":
+                // the tenure is only the initial one, the search adapts it
+                for(int tenure : tenures) {
+                    configurations.add(new Configuration("tabooReactive tenure=" + tenure,
+                            () -> new TabooSolver(tenure, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT),
+                                    new N5(), 0, 0, true)));
+                }
+                break;
+            case "lns":
+                for(int windowTasks : new int[] { 2, 3, 4, 6 }) {
+                    for(long maxNodes : new long[] { 50, 100, 500 }) {
+                        configurations.add(new Configuration("lns windowTasks=" + windowTasks + " maxNodes=" + maxNodes,
+                                () -> new LnsSolver(new GreedySolver(Priority.EST_LRPT), windowTasks, maxNodes, 1, 1, 0)));
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown parameter space \"" + space + "\", available : " + spaces);
+        }
+        return configurations;
+    }
+}
@@ -0,0 +1,258 @@
+package jobshop.tuning;
+
+import jobshop.Clock;
+import jobshop.Instance;
+import jobshop.Result;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Racing of configurations on a family of instances (F-race, Birattari et al. 2002).
+ *
+ * The surviving configurations are run on the instances one after the other, each instance being a block of the
+ * Friedman test : the configurations are ranked by makespan on each instance, and once `firstTest` instances have been
+ * solved, the configurations whose sum of ranks is significantly worse than the one of the best configuration are
+ * eliminated (Friedman test followed by the pairwise comparisons of Conover). The budget of runs is thus spent on the
+ * configurations that are still likely to be the best.
+ *
+ * The runs of the configurations on an instance are done in parallel. They are given the same time, from `Clock`,
+ * which should measure the CPU time when there are more threads than processors.
+ */
+public class Race {
+
+    /** Outcome of a race */
+    public static final class Outcome {
+        /** Configuration with the best sum of ranks among the survivors */
+        public final Configuration best;
+        /** Configurations that were not eliminated, by increasing sum of ranks */
+        public final List<Configuration> survivors;
+        /** Number of instances and of runs used */
+        public final int instances;
+        public final int runs;
+        /** Average makespan of the best configuration, relative to the average makespan of the configurations run
+         * on the same instances (1 for an average configuration, less for a better one) */
+        public final double relativeMakespan;
+
+        Outcome(Configuration best, List<Configuration> survivors, int instances, int runs, double relativeMakespan) {
+            this.best = best;
+            this.survivors = survivors;
+            this.instances = instances;
+            this.runs = runs;
+            this.relativeMakespan = relativeMakespan;
+        }
+    }
+
+    private final List<Configuration> configurations;
+    private final List<Instance> instances;
+    /** Time given to each run, in milliseconds */
+    private final long runTime;
+    /** Number of runs done in parallel */
+    private final int threads;
+    /** Maximal number of runs of the race */
+    private final int maxRuns;
+    /** Significance level of the tests */
+    private final double alpha;
+    /** Number of instances solved before the first test */
+    private final int firstTest;
+    /** Where eliminations are reported, null to be silent */
+    private final PrintStream log;
+
+    public Race(List<Configuration> configurations, List<Instance> instances, long runTime, int threads, int maxRuns,
+                double alpha, int firstTest, PrintStream log) {
+        this.configurations = configurations;
+        this.instances = instances;
+        this.runTime = runTime;
+        this.threads = threads;
+        this.maxRuns = maxRuns;
+        this.alpha = alpha;
+        this.firstTest = firstTest;
+        this.log = log;
+    }
+
+    public Outcome run() {
+        // makespans[i][c] : makespan of configuration c on the i-th instance (all configurations alive at step i)
+        List<int[]> makespans = new ArrayList<>();
+        List<Integer> alive = new ArrayList<>();
+        for(int c = 0 ; c < configurations.size() ; c++)
+            alive.add(c);
+        int runs = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for(Instance instance : instances) {
+                if(alive.size() <= 1 || runs + alive.size() > maxRuns)
+                    break;
+                int[] block = new int[configurations.size()];
+                List<Future<Integer>> futures = new ArrayList<>();
+                for(int c : alive) {
+                    Configuration configuration = configurations.get(c);
+                    futures.add(pool.submit(() -> {
+                        // with CPU time, the clock of the thread advances with this run only
+                        Result result = configuration.factory.get().solve(instance, Clock.millis() + runTime);
+                        return result.schedule.makespan();
+                    }));
+                }
+                for(int k = 0 ; k < alive.size() ; k++)
+                    block[alive.get(k)] = futures.get(k).get();
+                makespans.add(block);
+                runs += alive.size();
+
+                if(makespans.size() >= firstTest) {
+                    List<Integer> survivors = survivors(makespans, alive, alpha);
+                    if(survivors.size() < alive.size() && log != null) {
+                        log.printf("  after %d instances : %d of %d configurations left%n",
+                                makespans.size(), survivors.size(), alive.size());
+                    }
+                    // the instances solved so far keep the results of the survivors only
+                    alive = survivors;
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+
+        double[] rankSums = rankSums(makespans, alive);
+        Integer[] order = new Integer[alive.size()];
+        for(int k = 0 ; k < order.length ; k++)
+            order[k] = k;
+        Arrays.sort(order, (a, b) -> Double.compare(rankSums[a], rankSums[b]));
+        List<Configuration> survivors = new ArrayList<>();
+        for(int k : order)
+            survivors.add(configurations.get(alive.get(k)));
+
+        int best = alive.get(order[0]);
+        double relative = 0;
+        for(int[] block : makespans) {
+            // configurations eliminated before this instance have no result on it
+            double mean = 0;
+            int count = 0;
+            for(int makespan : block) {
+                if(makespan > 0) {
+                    mean += makespan;
+                    count++;
+                }
+            }
+            relative += block[best] / (mean / count) / makespans.size();
+        }
+        return new Outcome(configurations.get(best), survivors, makespans.size(), runs, makespans.isEmpty() ? 1 : relative);
+    }
+
+    /** Sum of the ranks of each alive configuration (in the order of `alive`), over all blocks.
+     * On each block, the configurations are ranked by increasing makespan, ties sharing the average of their ranks. */
+    static double[] rankSums(List<int[]> makespans, List<Integer> alive) {
+        double[] sums = new double[alive.size()];
+        for(int[] block : makespans) {
+            double[] ranks = ranks(block, alive);
+            for(int k = 0 ; k < sums.length ; k++)
+                sums[k] += ranks[k];
+        }
+        return sums;
+    }
+
+    private static double[] ranks(int[] block, List<Integer> alive) {
+        int k = alive.size();
+        double[] ranks = new double[k];
+        for(int a = 0 ; a < k ; a++) {
+            int lower = 0;
+            int equal = 0;
+            for(int b = 0 ; b < k ; b++) {
+                if(block[alive.get(b)] < block[alive.get(a)])
+                    lower++;
+                else if(block[alive.get(b)] == block[alive.get(a)])
+                    equal++;
+            }
+            // ranks lower+1 ... lower+equal are shared
+            ranks[a] = lower + (equal + 1) / 2.0;
+        }
+        return ranks;
+    }
+
+    /** Configurations that are not significantly worse than the best one, according to the Friedman test at level
+     * alpha, followed by the pairwise comparisons of Conover (as in the `race` package for R). */
+    static List<Integer> survivors(List<int[]> makespans, List<Integer> alive, double alpha) {
+        int n = makespans.size();
+        int k = alive.size();
+        if(k < 2 || n < 2)
+            return alive;
+        double[] sums = new double[k];
+        double squares = 0;
+        for(int[] block : makespans) {
+            double[] ranks = ranks(block, alive);
+            for(int c = 0 ; c < k ; c++) {
+                sums[c] += ranks[c];
+                squares += ranks[c] * ranks[c];
+            }
+        }
+        double expected = n * (k + 1) / 2.0;
+        double deviation = 0;
+        double sumsSquared = 0;
+        double best = Double.MAX_VALUE;
+        for(int c = 0 ; c < k ; c++) {
+            deviation += (sums[c] - expected) * (sums[c] - expected);
+            sumsSquared += sums[c] * sums[c];
+            best = Math.min(best, sums[c]);
+        }
+        double denominator = squares - n * k * (k + 1) * (k + 1) / 4.0;
+        if(denominator <= 0)
+            // all configurations tie on all instances
+            return alive;
+        double t = (k - 1) * deviation / denominator;
+        if(t <= chiSquareQuantile(1 - alpha, k - 1))
+            return alive;
+
+        int df = (n - 1) * (k - 1);
+        double difference = studentQuantile(1 - alpha / 2, df) * Math.sqrt(2 * (n * squares - sumsSquared) / df);
+        List<Integer> survivors = new ArrayList<>();
+        for(int c = 0 ; c < k ; c++) {
+            if(sums[c] - best <= difference)
+                survivors.add(alive.get(c));
+        }
+        return survivors;
+    }
+
+    /** Quantile of the standard normal distribution (Acklam's rational approximation, relative error below 1.2e-9). */
+    static double normalQuantile(double p) {
+        double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+        double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01, -1.328068155288572e+01 };
+        double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+        double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00 };
+        if(p < 0.02425) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if(p > 1 - 0.02425)
+            return -normalQuantile(1 - p);
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /** Quantile of the chi-square distribution (Wilson-Hilferty approximation). */
+    static double chiSquareQuantile(double p, int df) {
+        double z = normalQuantile(p);
+        double h = 2.0 / (9 * df);
+        double x = 1 - h + z * Math.sqrt(h);
+        return df * x * x * x;
+    }
+
+    /** Quantile of the Student t distribution (Cornish-Fisher expansion, Abramowitz and Stegun 26.7.5). */
+    static double studentQuantile(double p, int df) {
+        double z = normalQuantile(p);
+        double z2 = z * z;
+        double g1 = (z2 + 1) * z / 4;
+        double g2 = ((5 * z2 + 16) * z2 + 3) * z / 96;
+        double g3 = (((3 * z2 + 19) * z2 + 17) * z2 - 15) * z / 384;
+        double g4 = ((((79 * z2 + 776) * z2 + 1482) * z2 - 1920) * z2 - 945) * z / 92160;
+        return z + g1 / df + g2 / ((double) df * df) + g3 / ((double) df * df * df) + g4 / ((double) df * df * df * df);
+    }
+}
@@ -0,0 +1,139 @@
+package jobshop.tuning;
+
+import jobshop.BestKnownResult;
+import jobshop.Clock;
+import jobshop.Instance;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Tunes the parameters of a solver on families of instances, run by the `tune` gradle task.
+ *
+ * For each family (the instances whose name has the same prefix of letters, e.g. "la" or "swv"), the configurations
+ * of the parameter space (see ParameterSpace) are raced on the instances of the family, in random order (see Race),
+ * and the best configuration is reported.
+ */
+public class Tuner {
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("jsp-tuner").build()
+                .defaultHelp(true)
+                .description("Races configurations of a solver and reports the best one for each family of instances.");
+        parser.addArgument("--space")
+                .setDefault("taboo")
+                .choices(ParameterSpace.spaces)
+                .help("Parameterized solver to tune");
+        parser.addArgument("--instance")
+                .nargs("+")
+                .required(true)
+                .help("Instance(s) to tune on, grouped by family (space separated if more than one)");
+        parser.addArgument("-t", "--run-time")
+                .setDefault(1000L)
+                .type(Long.class)
+                .help("Time given to each run of a configuration, in milliseconds");
+        parser.addArgument("--threads")
+                .setDefault(Runtime.getRuntime().availableProcessors())
+                .type(Integer.class)
+                .help("Number of runs done in parallel");
+        parser.addArgument("--max-runs")
+                .setDefault(1000)
+                .type(Integer.class)
+                .help("Maximal number of runs for each family");
+        parser.addArgument("--alpha")
+                .setDefault(0.05)
+                .type(Double.class)
+                .help("Significance level of the eliminations");
+        parser.addArgument("--first-test")
+                .setDefault(5)
+                .type(Integer.class)
+                .help("Number of instances solved before the first elimination");
+        parser.addArgument("--cpu-time")
+                .action(Arguments.storeTrue())
+                .help("Gives each run its time in CPU time (recommended when there are more threads than processors)");
+        parser.addArgument("--seed")
+                .setDefault(0L)
+                .type(Long.class)
+                .help("Seed of the order of the instances");
+
+        Namespace ns = null;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+        PrintStream output = System.out;
+        double alpha = ns.get("alpha");
+
+        Map<String, List<String>> families = families(ns.getList("instance"));
+        if(families.isEmpty()) {
+            System.err.println("ERROR: no instance matches " + ns.getList("instance"));
+            System.exit(1);
+        }
+        if(ns.getBoolean("cpu_time")) {
+            Clock.useCpuTime(true);
+        }
+
+        try {
+            Map<String, Race.Outcome> outcomes = new LinkedHashMap<>();
+            for(Map.Entry<String, List<String>> family : families.entrySet()) {
+                List<String> names = new ArrayList<>(family.getValue());
+                Collections.shuffle(names, new Random(ns.getLong("seed")));
+                List<Instance> instances = new ArrayList<>();
+                for(String name : names)
+                    instances.add(Instance.fromFile(Paths.get("instances/", name)));
+
+                List<Configuration> configurations = ParameterSpace.configurations(ns.getString("space"));
+                output.printf("%s : %d configurations on %d instances%n", family.getKey(), configurations.size(), instances.size());
+                Clock.restart();
+                Race race = new Race(configurations, instances, ns.getLong("run_time"), ns.getInt("threads"),
+                        ns.getInt("max_runs"), alpha, ns.getInt("first_test"), output);
+                outcomes.put(family.getKey(), race.run());
+            }
+
+            output.println();
+            output.printf("%-8s %-50s %9s %5s %10s  %s%n", "family", "best configuration", "instances", "runs", "makespan", "survivors");
+            for(Map.Entry<String, Race.Outcome> entry : outcomes.entrySet()) {
+                Race.Outcome outcome = entry.getValue();
+                output.printf("%-8s %-50s %9d %5d %9.2f%%  %d%n", entry.getKey(), outcome.best, outcome.instances,
+                        outcome.runs, 100 * (outcome.relativeMakespan - 1), outcome.survivors.size());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /** Instances matching the prefixes, grouped by family. */
+    static Map<String, List<String>> families(List<String> prefixes) {
+        Map<String, List<String>> families = new LinkedHashMap<>();
+        for(String prefix : prefixes) {
+            for(String name : BestKnownResult.instancesMatching(prefix)) {
+                List<String> family = families.computeIfAbsent(family(name), f -> new ArrayList<>());
+                if(!family.contains(name))
+                    family.add(name);
+            }
+        }
+        return families;
+    }
+
+    /** Family of an instance : its name without the trailing digits, e.g. "la" for "la21". */
+    static String family(String instance) {
+        int end = instance.length();
+        while(end > 0 && Character.isDigit(instance.charAt(end - 1)))
+            end--;
+        return instance.substring(0, end);
+    }
+}
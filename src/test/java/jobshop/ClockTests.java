@@ -0,0 +1,61 @@
+package jobshop;
+
+import jobshop.neighborhoods.N5;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.TabooSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class ClockTests {
+
+    /** In CPU time, a sleeping thread does not get closer to its deadline, and the CPU time of the threads that read
+     * the clock is summed. */
+    @Test
+    public void testCpuTime() throws Exception {
+        Clock.useCpuTime(true);
+        try {
+            Clock.restart();
+            long before = Clock.millis();
+            Thread.sleep(200);
+            assert Clock.millis() - before < 100;
+
+            // two threads spinning for 100 ms of CPU time each
+            Thread[] threads = new Thread[2];
+            for(int i = 0 ; i < threads.length ; i++) {
+                threads[i] = new Thread(() -> {
+                    long deadline = Clock.millis() + 100;
+                    while(Clock.millis() < deadline) {
+                        Thread.yield();
+                    }
+                });
+                threads[i].start();
+            }
+            for(Thread thread : threads)
+                thread.join();
+            long elapsed = Clock.elapsedNanos() / 1000000;
+            assert elapsed >= 200 && elapsed < 1000 : elapsed;
+        } finally {
+            Clock.useCpuTime(false);
+        }
+    }
+
+    /** Solvers stop at a deadline in CPU time. */
+    @Test
+    public void testSolverDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        Clock.useCpuTime(true);
+        try {
+            Clock.restart();
+            long start = System.currentTimeMillis();
+            TabooSolver solver = new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 200);
+            Result result = solver.solve(instance, Clock.millis() + 300);
+            assert result.cause == Result.ExitCause.Timeout;
+            assert Clock.elapsedNanos() >= 250 * 1000000L;
+            assert System.currentTimeMillis() - start < 10000;
+        } finally {
+            Clock.useCpuTime(false);
+        }
+    }
+}
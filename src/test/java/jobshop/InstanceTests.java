@@ -0,0 +1,161 @@
+package jobshop;
+
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.BranchAndBoundSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.ShiftingBottleneckSolver;
+import jobshop.solvers.TabooSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InstanceTests {
+
+    /** The cached quantities are the ones computed directly from the tasks. */
+    @Test
+    public void testDerivedData() throws IOException {
+        for(String name : new String[] { "aaa1", "ft06", "la21", "swv01" }) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            int[] load = new int[instance.numMachines];
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                int length = 0;
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    int prefix = 0;
+                    for(int k = 0 ; k < t ; k++)
+                        prefix += instance.duration(j, k);
+                    int suffix = 0;
+                    for(int k = t + 1 ; k < instance.numTasks ; k++)
+                        suffix += instance.duration(j, k);
+                    assert instance.jobPrefix(j, t) == prefix;
+                    assert instance.jobSuffix(j, t) == suffix;
+                    assert instance.task_with_machine(j, instance.machine(j, t)) == t;
+                    length += instance.duration(j, t);
+                    load[instance.machine(j, t)] += instance.duration(j, t);
+                }
+                assert instance.jobLength(j) == length;
+            }
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                assert instance.machineLoad(m) == load[m];
+                assert instance.numOperationsOn(m) == instance.numJobs;
+                for(int i = 0 ; i < instance.numOperationsOn(m) ; i++) {
+                    int op = instance.operationOn(m, i);
+                    assert instance.jobOf(op) == i;
+                    assert instance.operation(instance.jobOf(op), instance.taskOf(op)) == op;
+                    assert instance.machineOf(op) == m;
+                }
+            }
+        }
+    }
+
+    /** Jobs of different lengths, that skip some machines, are stored and solved like the others. */
+    @Test
+    public void testJobsOfDifferentLengths() {
+        Instance instance = Instance.of(4,
+                new int[][] { { 0, 1, 2, 3 }, { 2, 0 }, { 3 }, { 1, 3, 0 }, {} },
+                new int[][] { { 3, 2, 5, 1 }, { 4, 6 }, { 7 }, { 2, 2, 3 }, {} });
+        assert instance.numJobs == 5;
+        assert instance.numTasks == 4;
+        assert instance.numOperations == 10;
+        assert !instance.isRectangular();
+        assert instance.numTasks(1) == 2 && instance.numTasks(4) == 0;
+        assert instance.operation(3, 2) == 9;
+        assert instance.jobOf(9) == 3 && instance.taskOf(9) == 2 && instance.machineOf(9) == 0;
+        assert instance.jobPrefix(3, 2) == 4 && instance.jobSuffix(1, 0) == 6;
+        assert instance.jobLength(0) == 11 && instance.jobLength(4) == 0;
+        assert instance.machineLoad(3) == 10;
+        assert instance.numOperationsOn(0) == 3 && instance.numOperationsOn(2) == 2;
+        assert instance.task_with_machine(1, 0) == 1;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 1 ; i < instance.numOperationsOn(m) ; i++)
+                assert instance.jobOf(instance.operationOn(m, i - 1)) < instance.jobOf(instance.operationOn(m, i));
+        }
+
+        int lowerBound = LowerBound.of(instance);
+        Schedule greedy = new GreedySolver(Priority.SPT).solve(instance, Long.MAX_VALUE).schedule;
+        assert new ResourceOrder(greedy).toSchedule().isValid();
+        assert new JobNumbers(greedy).toSchedule().isValid();
+        for(Solver solver : new Solver[] { new GreedySolver(Priority.EST_LRPT), new TabooSolver(10, 200),
+                new ShiftingBottleneckSolver(), new BranchAndBoundSolver() }) {
+            Result result = solver.solve(instance, System.currentTimeMillis() + 1000);
+            assert result.schedule.isValid() : solver;
+            assert result.schedule.makespan() >= lowerBound : solver;
+        }
+    }
+
+    /** The task of a job on a machine is found both on dense instances and on sparse ones (where each job only visits
+     * a few machines), and a machine that the job does not visit is reported. */
+    @Test
+    public void testTaskWithMachine() {
+        Instance dense = Instance.of(3,
+                new int[][] { { 0, 1, 2 }, { 2, 1 }, { 1, 0, 2 } },
+                new int[][] { { 1, 1, 1 }, { 1, 1 }, { 1, 1, 1 } });
+        Instance sparse = Instance.of(6,
+                new int[][] { { 5 }, { 0, 3 }, { 2 }, { 4, 1 }, { 3 }, { 1 } },
+                new int[][] { { 1 }, { 1, 1 }, { 1 }, { 1, 1 }, { 1 }, { 1 } });
+        for(Instance instance : new Instance[] { dense, sparse }) {
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                boolean[] visited = new boolean[instance.numMachines];
+                for(int t = 0 ; t < instance.numTasks(j) ; t++) {
+                    assert instance.task_with_machine(j, instance.machine(j, t)) == t;
+                    visited[instance.machine(j, t)] = true;
+                }
+                for(int m = 0 ; m < instance.numMachines ; m++) {
+                    if(visited[m])
+                        continue;
+                    boolean rejected = false;
+                    try {
+                        instance.task_with_machine(j, m);
+                    } catch (RuntimeException e) {
+                        rejected = true;
+                    }
+                    assert rejected;
+                }
+            }
+        }
+    }
+
+    /** Routes visiting a machine twice are rejected. */
+    @Test
+    public void testRepeatedMachine() {
+        boolean rejected = false;
+        try {
+            Instance.of(2, new int[][] { { 0, 1, 0 } }, new int[][] { { 1, 1, 1 } });
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assert rejected;
+    }
+
+    /** Threads reading the data for the first time at once all see it fully computed. */
+    @Test
+    public void testConcurrentFirstUse() throws Exception {
+        Instance reference = Instance.fromFile(Paths.get("instances/la21"));
+        for(int k = 0 ; k < 10 ; k++) {
+            Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+            int[] sums = new int[4];
+            List<Thread> threads = new ArrayList<>();
+            for(int i = 0 ; i < sums.length ; i++) {
+                int index = i;
+                threads.add(new Thread(() -> {
+                    int sum = 0;
+                    for(int j = 0 ; j < instance.numJobs ; j++)
+                        sum += instance.jobSuffix(j, 0) + instance.jobLength(j);
+                    sums[index] = sum;
+                }));
+            }
+            for(Thread thread : threads)
+                thread.start();
+            for(Thread thread : threads)
+                thread.join();
+            int expected = 0;
+            for(int j = 0 ; j < reference.numJobs ; j++)
+                expected += reference.jobSuffix(j, 0) + reference.jobLength(j);
+            for(int sum : sums)
+                assert sum == expected;
+        }
+    }
+}
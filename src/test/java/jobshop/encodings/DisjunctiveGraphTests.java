@@ -0,0 +1,75 @@
+package jobshop.encodings;
+
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Schedule;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class DisjunctiveGraphTests {
+
+    /** The incremental graph must always agree with a graph built from scratch and with the decoded schedule. */
+    private static void checkConsistent(DisjunctiveGraph graph, ResourceOrder order) {
+        Schedule schedule = order.toSchedule();
+        assert schedule != null;
+        assert graph.makespan() == schedule.makespan();
+        DisjunctiveGraph fresh = new DisjunctiveGraph(order);
+        for(int j = 0 ; j < order.instance.numJobs ; j++) {
+            for(int t = 0 ; t < order.instance.numTasks ; t++) {
+                assert graph.head(j, t) == schedule.startTime(j, t);
+                assert graph.tail(j, t) == fresh.tail(j, t);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomMoves() throws IOException {
+        Random random = new Random(0);
+        for(String name : new String[] {"ft06", "ft10", "la21"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule);
+            DisjunctiveGraph graph = new DisjunctiveGraph(order);
+            checkConsistent(graph, order);
+
+            int accepted = 0;
+            for(int step = 0 ; step < 300 ; step++) {
+                int machine = random.nextInt(instance.numMachines);
+                int i = random.nextInt(instance.numJobs);
+                int k = random.nextInt(instance.numJobs);
+                boolean swap = random.nextBoolean();
+
+                // the move is accepted by the graph if and only if it does not create a cycle
+                ResourceOrder modified = graph.toResourceOrder();
+                Task moved = modified.tasksByMachine[machine][i];
+                if(swap) {
+                    modified.tasksByMachine[machine][i] = modified.tasksByMachine[machine][k];
+                    modified.tasksByMachine[machine][k] = moved;
+                } else if(i < k) {
+                    System.arraycopy(modified.tasksByMachine[machine], i + 1, modified.tasksByMachine[machine], i, k - i);
+                    modified.tasksByMachine[machine][k] = moved;
+                } else {
+                    System.arraycopy(modified.tasksByMachine[machine], k, modified.tasksByMachine[machine], k + 1, i - k);
+                    modified.tasksByMachine[machine][k] = moved;
+                }
+                boolean feasible = modified.makespan() != Encoding.INFEASIBLE;
+
+                int before = graph.makespan();
+                boolean applied = swap ? graph.swap(machine, i, k) : graph.move(machine, i, k);
+                assert applied == feasible;
+                if(applied) {
+                    accepted++;
+                    checkConsistent(graph, modified);
+                } else {
+                    assert graph.makespan() == before;
+                }
+                checkConsistent(graph, graph.toResourceOrder());
+            }
+            assert accepted > 0;
+        }
+    }
+}
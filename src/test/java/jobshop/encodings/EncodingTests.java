@@ -1,5 +1,6 @@
 package jobshop.encodings;
 
+import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Result;
 import jobshop.Schedule;
@@ -9,6 +10,8 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
 
 public class EncodingTests {
 
@@ -72,4 +75,107 @@ public class EncodingTests {
         assert result.schedule.makespan() == sched.makespan(); // should have the same makespan
     }
 
+    @Test
+    public void testMakespanDecoding() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        DecodeBuffer buffer = new DecodeBuffer(instance);
+        Random random = new Random(0);
+
+        for(int i = 0 ; i < 100 ; i++) {
+            // random job numbers, and the resource order of their schedule
+            JobNumbers jobs = new JobNumbers(instance);
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    jobs.jobs[jobs.nextToSet++] = j;
+                }
+            }
+            for(int k = jobs.jobs.length - 1 ; k > 0 ; k--) {
+                int other = random.nextInt(k + 1);
+                int tmp = jobs.jobs[k];
+                jobs.jobs[k] = jobs.jobs[other];
+                jobs.jobs[other] = tmp;
+            }
+            Schedule schedule = jobs.toSchedule();
+            assert jobs.makespan(buffer) == schedule.makespan();
+            // decoding with a cutoff stops if and only if the makespan is not lower than the cutoff
+            assert jobs.makespan(buffer, schedule.makespan() + 1) == schedule.makespan();
+            assert jobs.makespan(buffer, schedule.makespan()) == Encoding.CUT_OFF;
+            assert jobs.makespan(buffer, 1) == Encoding.CUT_OFF;
+
+            ResourceOrder order = new ResourceOrder(schedule);
+            assert order.makespan(buffer) == schedule.makespan();
+            assert order.makespan(buffer, schedule.makespan() + 1) == schedule.makespan();
+            assert order.makespan(buffer, schedule.makespan()) == Encoding.CUT_OFF;
+            assert order.toSchedule().isValid();
+            assert order.toSchedule().makespan() == schedule.makespan();
+        }
+
+        // in aaa1, machine 0 processes (1,1) before (0,0) and machine 1 processes (0,1) before (1,0) :
+        // (1,0) -> (1,1) -> (0,0) -> (0,1) -> (1,0) is a cycle
+        instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        ResourceOrder order = new ResourceOrder(instance);
+        order.tasksByMachine[0][order.nextFreeSlot[0]++] = new Task(1, 1);
+        order.tasksByMachine[0][order.nextFreeSlot[0]++] = new Task(0, 0);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(0, 1);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(1, 0);
+        order.tasksByMachine[2][order.nextFreeSlot[2]++] = new Task(0, 2);
+        order.tasksByMachine[2][order.nextFreeSlot[2]++] = new Task(1, 2);
+        assert order.toSchedule() == null;
+        assert order.makespan() == Encoding.INFEASIBLE;
+    }
+
+    /** A copy has the same tasks and positions as the original, even when it is infeasible, and is independent of it.
+     * The buffer of a thread is reused for the instance. */
+    @Test
+    public void testCopy() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        assert DecodeBuffer.ofThread(instance) == DecodeBuffer.ofThread(instance);
+        ResourceOrder order = new ResourceOrder(instance);
+        order.tasksByMachine[0][order.nextFreeSlot[0]++] = new Task(1, 1);
+        order.tasksByMachine[0][order.nextFreeSlot[0]++] = new Task(0, 0);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(0, 1);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(1, 0);
+        order.tasksByMachine[2][order.nextFreeSlot[2]++] = new Task(0, 2);
+        assert order.position(0, 1) == 0;
+
+        ResourceOrder copy = order.copy();
+        assert Arrays.deepEquals(copy.tasksByMachine, order.tasksByMachine);
+        assert Arrays.equals(copy.nextFreeSlot, order.nextFreeSlot);
+        copy.swap(1, 0, 1);
+        copy.tasksByMachine[2][copy.nextFreeSlot[2]++] = new Task(1, 2);
+        assert copy.position(0, 1) == 1 && order.position(0, 1) == 0;
+        assert order.nextFreeSlot[2] == 1 && order.tasksByMachine[1][0].equals(new Task(0, 1));
+        assert copy.makespan() == copy.toSchedule().makespan();
+    }
+
+    @Test
+    public void testBatchEvaluation() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        DecodeBuffer buffer = new DecodeBuffer(instance);
+        JobNumbersBatch batch = new JobNumbersBatch(instance, 16);
+        Random random = new Random(0);
+
+        // only the first 13 candidates of the batch are evaluated
+        int[][] candidates = new int[13][instance.numJobs * instance.numTasks];
+        for(int k = 0 ; k < candidates.length ; k++) {
+            int[] jobs = candidates[k];
+            for(int i = 0 ; i < jobs.length ; i++) {
+                jobs[i] = i / instance.numTasks;
+            }
+            for(int i = jobs.length - 1 ; i > 0 ; i--) {
+                int other = random.nextInt(i + 1);
+                int tmp = jobs[i];
+                jobs[i] = jobs[other];
+                jobs[other] = tmp;
+            }
+            batch.set(k, jobs);
+        }
+        for(int run = 0 ; run < 2 ; run++) {
+            int[] makespans = batch.evaluate(candidates.length);
+            for(int k = 0 ; k < candidates.length ; k++) {
+                assert makespans[k] == JobNumbers.makespan(instance, candidates[k], buffer);
+            }
+        }
+    }
+
 }
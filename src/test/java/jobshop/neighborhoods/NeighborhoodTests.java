@@ -0,0 +1,130 @@
+package jobshop.neighborhoods;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class NeighborhoodTests {
+
+    private static Task[][] copyOf(ResourceOrder order) {
+        Task[][] copy = new Task[order.tasksByMachine.length][];
+        for(int m = 0 ; m < copy.length ; m++) {
+            copy[m] = order.tasksByMachine[m].clone();
+        }
+        return copy;
+    }
+
+    /** All moves must lead to valid schedules, and undoing them must restore the original order. */
+    private static void checkNeighborhood(Neighborhood neighborhood, ResourceOrder order) {
+        Task[][] original = copyOf(order);
+        for(Move move : neighborhood.neighbors(order)) {
+            move.applyOn(order);
+            Schedule schedule = order.toSchedule();
+            assert schedule != null : neighborhood + " produced a cyclic solution with " + move;
+            assert schedule.isValid();
+            move.undoOn(order);
+            assert Arrays.deepEquals(original, order.tasksByMachine) : move + " was not reverted";
+        }
+    }
+
+    @Test
+    public void testMovesAreFeasibleAndReversible() throws IOException {
+        for(String name : new String[] {"ft06", "ft10", "la21", "swv01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule);
+
+            // check the neighborhoods along a walk through the first neighbors
+            for(int step = 0 ; step < 20 ; step++) {
+                checkNeighborhood(new N1(), order);
+                checkNeighborhood(new N5(), order);
+                checkNeighborhood(new N6(), order);
+                new N6().neighbors(order).get(0).applyOn(order);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighborhoodSizes() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule);
+
+        // N1 contains every swap of N5
+        assert new N1().neighbors(order).size() >= new N5().neighbors(order).size();
+        assert !new N6().neighbors(order).isEmpty();
+    }
+
+    /** Positions stay consistent through moves and direct changes of the order, and the blocks are the runs of
+     * the critical path on the same machine. */
+    @Test
+    public void testPositionsAndBlocks() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule);
+        Blocks blocks = new Blocks();
+        Random random = new Random(0);
+        for(int step = 0 ; step < 50 ; step++) {
+            List<Move> moves = step % 2 == 0 ? new N5().neighbors(order) : new N6().neighbors(order);
+            moves.get(random.nextInt(moves.size())).applyOn(order);
+            if(step % 10 == 9) {
+                // changed behind the back of the order : the positions are rebuilt
+                Task[] tasks = order.tasksByMachine[0];
+                Task first = tasks[0];
+                tasks[0] = tasks[1];
+                tasks[1] = first;
+                if(order.toSchedule() == null) {
+                    tasks[1] = tasks[0];
+                    tasks[0] = first;
+                }
+            }
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                for(int i = 0 ; i < instance.numJobs ; i++)
+                    assert order.position(order.tasksByMachine[m][i]) == i;
+            }
+
+            Schedule schedule = order.toSchedule();
+            blocks.find(order, schedule);
+            int b = 0;
+            List<Task> path = schedule.criticalPath();
+            for(int i = 0 ; i < path.size() ; ) {
+                int machine = instance.machine(path.get(i));
+                int k = i;
+                while(k + 1 < path.size() && instance.machine(path.get(k + 1)) == machine)
+                    k++;
+                if(k > i) {
+                    assert blocks.machine(b) == machine;
+                    assert order.tasksByMachine[machine][blocks.first(b)].equals(path.get(i));
+                    assert order.tasksByMachine[machine][blocks.last(b)].equals(path.get(k));
+                    b++;
+                }
+                i = k + 1;
+            }
+            assert blocks.size() == b;
+        }
+    }
+
+    /** Tails are the longest paths to the end of the schedule, even through tasks of null duration. */
+    @Test
+    public void testTailsWithNullDurations() {
+        Instance instance = Instance.of(2,
+                new int[][] { { 0, 1 }, { 1 } },
+                new int[][] { { 0, 0 }, { 5 } });
+        ResourceOrder order = new ResourceOrder(instance);
+        order.tasksByMachine[0][order.nextFreeSlot[0]++] = new Task(0, 0);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(0, 1);
+        order.tasksByMachine[1][order.nextFreeSlot[1]++] = new Task(1, 0);
+
+        int[] tails = new N6().tails(order);
+        assert tails[instance.operation(1, 0)] == 0;
+        assert tails[instance.operation(0, 1)] == 5;
+        assert tails[instance.operation(0, 0)] == 5;
+    }
+}
@@ -0,0 +1,76 @@
+package jobshop.perf;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PerfSuiteTests {
+
+    @Test
+    public void testBaselineComparison() throws IOException {
+        List<Metric> baseline = Arrays.asList(
+                new Metric("decode.resourceOrder.ft10", Metric.Kind.Throughput, "ops/s", 1000),
+                new Metric("solve.taboo10.seed0.time", Metric.Kind.Time, "ms", 200),
+                new Metric("solve.taboo10.seed0.ft10.gap", Metric.Kind.Gap, "%", 2.5));
+
+        // the baseline is read back as written
+        Path path = Files.createTempFile("baseline", ".json");
+        Metric.write(path, baseline, Collections.singletonList("test \"environment\""));
+        List<Metric> read = Metric.read(path);
+        Files.delete(path);
+        assert read.size() == baseline.size();
+        for(int i = 0 ; i < read.size() ; i++) {
+            assert read.get(i).name.equals(baseline.get(i).name);
+            assert read.get(i).kind == baseline.get(i).kind;
+            assert read.get(i).value == baseline.get(i).value;
+        }
+
+        // small changes are tolerated
+        List<Metric> close = Arrays.asList(
+                new Metric("decode.resourceOrder.ft10", Metric.Kind.Throughput, "ops/s", 800),
+                new Metric("solve.taboo10.seed0.time", Metric.Kind.Time, "ms", 240),
+                new Metric("solve.taboo10.seed0.ft10.gap", Metric.Kind.Gap, "%", 2.9),
+                new Metric("decode.new.ft10", Metric.Kind.Throughput, "ops/s", 1));
+        assert PerfSuite.compare(close, baseline, 0.25, 0.5).isEmpty();
+
+        // but not regressions past the thresholds, whatever the direction of the metric
+        List<Metric> worse = Arrays.asList(
+                new Metric("decode.resourceOrder.ft10", Metric.Kind.Throughput, "ops/s", 700),
+                new Metric("solve.taboo10.seed0.time", Metric.Kind.Time, "ms", 260),
+                new Metric("solve.taboo10.seed0.ft10.gap", Metric.Kind.Gap, "%", 3.1));
+        assert PerfSuite.compare(worse, baseline, 0.25, 0.5).size() == 3;
+        assert PerfSuite.compare(worse, baseline, 0.5, 1).isEmpty();
+
+        // metrics of the baseline missing from the run are regressions
+        assert PerfSuite.compare(worse.subList(0, 2), baseline, 0.5, 1).size() == 1;
+        assert PerfSuite.compare(Collections.emptyList(), baseline, 0.5, 1).size() == 3;
+    }
+
+    /** A reformatted baseline is read, but a baseline that cannot be read entirely is an error. */
+    @Test
+    public void testBaselineFailsClosed() throws IOException {
+        Path path = Files.createTempFile("baseline", ".json");
+        Files.write(path, ("{\"metrics\": [\n  {\n    \"name\":\"decode.resourceOrder.ft10\",\n    \"kind\":\"Throughput\",\n"
+                + "    \"unit\":\"ops/s\",\n    \"value\":1000\n  }\n]}").getBytes(StandardCharsets.UTF_8));
+        List<Metric> read = Metric.read(path);
+        assert read.size() == 1 && read.get(0).value == 1000;
+
+        for(String json : new String[] { "{}", "{\"metrics\": [{\"value\": 1, \"name\": \"decode\", \"kind\": \"Time\"}]}" }) {
+            Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+            boolean rejected = false;
+            try {
+                Metric.read(path);
+            } catch (IOException e) {
+                rejected = true;
+            }
+            assert rejected : json;
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,72 @@
+package jobshop.rescheduling;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.encodings.Task;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+
+public class ReschedulingTests {
+
+    @Test
+    public void testArrivalAndBreakdown() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Schedule current = new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule;
+        int now = current.makespan() / 3;
+        Set<Task> frozen = Rescheduler.startedBefore(current, now);
+
+        // a new job visiting the machines in reverse order, machine 4 down for a while, and a longer task
+        int[] machines = new int[instance.numMachines];
+        int[] durations = new int[instance.numMachines];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            machines[m] = instance.numMachines - 1 - m;
+            durations[m] = 10 + m;
+        }
+        Task longer = new Task(0, instance.numTasks - 1);
+        assert !frozen.contains(longer);
+        Result result = new Rescheduler().reschedule(current, now, frozen, Arrays.asList(
+                new JobArrival(machines, durations),
+                new MachineBreakdown(4, now, now + 50),
+                new DurationChange(longer.job, longer.task, instance.duration(longer) + 20)
+        ), Long.MAX_VALUE);
+
+        Instance updated = result.instance;
+        Schedule schedule = result.schedule;
+        assert updated.numJobs == instance.numJobs + 1;
+        assert updated.duration(longer) == instance.duration(longer) + 20;
+        assert schedule.isValid();
+
+        for(int j = 0 ; j < updated.numJobs ; j++) {
+            for(int t = 0 ; t < updated.numTasks ; t++) {
+                Task task = new Task(j, t);
+                if(frozen.contains(task)) {
+                    // started tasks are not moved
+                    assert schedule.startTime(task) == current.startTime(task);
+                } else {
+                    // the other ones are scheduled from now on, outside of the unavailability window
+                    assert schedule.startTime(task) >= now;
+                    if(updated.machine(task) == 4)
+                        assert schedule.endTime(task) <= now || schedule.startTime(task) >= now + 50;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoEventKeepsSchedule() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        Schedule current = new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule;
+
+        // without any event, the repaired schedule is never worse than the current one
+        Result result = new Rescheduler().reschedule(current, 0, Arrays.asList(), Long.MAX_VALUE);
+        assert result.schedule.isValid();
+        assert result.schedule.makespan() <= current.makespan();
+    }
+}
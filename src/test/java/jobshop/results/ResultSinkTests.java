@@ -0,0 +1,93 @@
+package jobshop.results;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.solvers.RandomSolver;
+import jobshop.solvers.TabooSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResultSinkTests {
+
+    private static List<RunRecord> records() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("iterations", 500L);
+        stats.put("nodes", 12345678901L);
+        return Arrays.asList(
+                new RunRecord("ft10", "10x10", "taboo10", 0, 12.5, 972, 930, 930, "Blocked", stats),
+                new RunRecord("la21", "15x10", "solver, \"quoted\"", -3, 1000.125, 1100, 1046, 1040, "Timeout",
+                        Collections.emptyMap()));
+    }
+
+    /** Records read back from a file, in both formats, are the ones written, and reopening a file appends to it. */
+    @Test
+    public void testRoundTrip() throws IOException {
+        for(String extension : new String[] { ".csv", ".jsonl" }) {
+            Path file = Files.createTempFile("results", extension);
+            Files.delete(file);
+            List<RunRecord> records = records();
+            try (ResultSink sink = ResultSink.open(file)) {
+                sink.write(records.get(0));
+            }
+            try (ResultSink sink = ResultSink.open(file)) {
+                sink.write(records.get(1));
+            }
+            assert ResultSink.read(file).equals(records) : extension;
+            // a single header line in CSV
+            assert Files.readAllLines(file).size() == (extension.equals(".csv") ? 3 : 2);
+            Files.delete(file);
+        }
+    }
+
+    /** Records are on disk as soon as they are written, and a line cut by a crash prevents neither reading nor
+     * appending. */
+    @Test
+    public void testStreaming() throws IOException {
+        for(String extension : new String[] { ".csv", ".jsonl" }) {
+            Path file = Files.createTempFile("results", extension);
+            Files.delete(file);
+            List<RunRecord> records = records();
+            ResultSink sink = ResultSink.open(file);
+            sink.write(records.get(0));
+            assert ResultSink.read(file).equals(records.subList(0, 1)) : extension;
+            sink.close();
+            Files.write(file, "la21,15x10,tab".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assert ResultSink.read(file).equals(records.subList(0, 1)) : extension;
+            try (ResultSink again = ResultSink.open(file)) {
+                again.write(records.get(1));
+            }
+            assert ResultSink.read(file).equals(records) : extension;
+            Files.delete(file);
+        }
+    }
+
+    /** Runs with other seeds differ for randomized solvers, and report their counters. */
+    @Test
+    public void testSeedsAndStats() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Result first = new RandomSolver(0, 1, 200).withSeed(1).solve(instance, Long.MAX_VALUE);
+        Result again = new RandomSolver(0, 1, 200).withSeed(1).solve(instance, Long.MAX_VALUE);
+        Result other = new RandomSolver(0, 1, 200).withSeed(2).solve(instance, Long.MAX_VALUE);
+        assert first.schedule.makespan() == again.schedule.makespan();
+        assert first.schedule.makespan() != other.schedule.makespan();
+        assert first.stats.get("samples") == 200;
+
+        Result taboo = new TabooSolver(10, 50).solve(instance, Long.MAX_VALUE);
+        assert taboo.stats.get("iterations") > 0 && taboo.stats.get("iterations") <= 50;
+
+        List<Summary.Group> groups = Summary.summarize(records(), r -> r.solver);
+        assert groups.size() == 2 && groups.get(0).runs == 1;
+        assert Math.abs(groups.get(0).gap - 100.0 * 42 / 930) < 1e-9;
+    }
+}
@@ -0,0 +1,28 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class BranchAndBoundTests {
+
+    /** The serial and the parallel searches both prove the optimum of small instances. */
+    @Test
+    public void testProvesOptimum() throws IOException {
+        String[] names = { "ft06", "la01" };
+        int[] optima = { 55, 666 };
+        for(int i = 0 ; i < names.length ; i++) {
+            String name = names[i];
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            for(BranchAndBoundSolver solver : new BranchAndBoundSolver[] { new BranchAndBoundSolver(), new BranchAndBoundSolver(4) }) {
+                Result result = solver.solve(instance, System.currentTimeMillis() + 60000);
+                assert result.schedule.isValid();
+                assert result.cause == Result.ExitCause.ProvedOptimal : name;
+                assert result.schedule.makespan() == optima[i] : name;
+            }
+        }
+    }
+}
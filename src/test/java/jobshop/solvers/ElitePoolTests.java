@@ -0,0 +1,106 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.neighborhoods.Swap;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class ElitePoolTests {
+
+    private static ResourceOrder greedy(Instance instance, Priority priority) {
+        return new ResourceOrder(new GreedySolver(priority).solve(instance, Long.MAX_VALUE).schedule);
+    }
+
+    /** Number of pairs of tasks of a machine that are in a different order in the two solutions */
+    private static int pairDistance(ResourceOrder a, ResourceOrder b) {
+        int distance = 0;
+        for(int m = 0 ; m < a.instance.numMachines ; m++) {
+            Task[] tasks = a.tasksByMachine[m];
+            for(int i = 0 ; i < tasks.length ; i++) {
+                for(int k = i + 1 ; k < tasks.length ; k++) {
+                    if(position(b, m, tasks[i]) > position(b, m, tasks[k]))
+                        distance++;
+                }
+            }
+        }
+        return distance;
+    }
+
+    private static int position(ResourceOrder order, int m, Task t) {
+        for(int i = 0 ; i < order.tasksByMachine[m].length ; i++) {
+            if(order.tasksByMachine[m][i].equals(t))
+                return i;
+        }
+        throw new IllegalArgumentException(t + " is not on machine " + m);
+    }
+
+    /** Relinking returns a feasible solution about half way between the two solutions. */
+    @Test
+    public void testRelinkGoesHalfWay() throws IOException {
+        for(String name : new String[] { "ft10", "la21", "swv01" }) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            ResourceOrder from = greedy(instance, Priority.EST_LRPT);
+            ResourceOrder to = greedy(instance, Priority.SPT);
+            int distance = pairDistance(from, to);
+            assert distance > 10 : name;
+
+            ResourceOrder relinked = ElitePool.relink(from, to, new Random(0));
+            assert relinked.toSchedule() != null && relinked.toSchedule().isValid() : name;
+            int remaining = pairDistance(relinked, to);
+            assert remaining >= distance - distance / 2 : name;
+            assert remaining <= distance / 2 + distance / 10 : name + " " + remaining + " of " + distance;
+            // the starting solution is left untouched
+            assert pairDistance(from, greedy(instance, Priority.EST_LRPT)) == 0;
+        }
+    }
+
+    /** A solution close to an elite only replaces it if it is better, and a full pool replaces its worst elite. */
+    @Test
+    public void testDiversity() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        ResourceOrder a = greedy(instance, Priority.EST_LRPT);
+        ResourceOrder b = greedy(instance, Priority.SPT);
+        ResourceOrder c = greedy(instance, Priority.LRPT);
+        ResourceOrder d = greedy(instance, Priority.EST_SPT);
+        int minDistance = instance.numOperations / 20;
+        ResourceOrder[] orders = { a, b, c, d };
+        for(int i = 0 ; i < orders.length ; i++) {
+            for(int k = i + 1 ; k < orders.length ; k++)
+                assert ElitePool.distance(orders[i], orders[k]) >= minDistance;
+        }
+
+        // a feasible neighbor of a, at distance 2
+        ResourceOrder close = null;
+        for(int m = 0 ; m < instance.numMachines && close == null ; m++) {
+            ResourceOrder neighbor = a.copy();
+            new Swap(m, 0, 1).applyOn(neighbor);
+            if(neighbor.toSchedule() != null)
+                close = neighbor;
+        }
+        assert close != null && ElitePool.distance(a, close) < minDistance;
+
+        // the makespans given to the pool are arbitrary
+        ElitePool pool = new ElitePool(2);
+        assert pool.offer(a, 1000);
+        assert !pool.offer(close, 1000);
+        assert pool.size() == 1 && ElitePool.distance(pool.elites().get(0).order, a) == 0;
+        assert pool.offer(close, 990);
+        assert pool.size() == 1 && pool.elites().get(0).makespan == 990;
+        assert ElitePool.distance(pool.elites().get(0).order, close) == 0;
+
+        assert pool.offer(b, 1100);
+        assert pool.size() == 2;
+        // full : a worse solution is rejected, a better one replaces the worst elite (b)
+        assert !pool.offer(c, 1200);
+        assert pool.offer(d, 1050);
+        assert pool.size() == 2;
+        assert pool.elites().get(0).makespan == 990 && pool.elites().get(1).makespan == 1050;
+        assert ElitePool.distance(pool.elites().get(1).order, d) == 0;
+    }
+}
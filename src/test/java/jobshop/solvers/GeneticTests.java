@@ -0,0 +1,77 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.JobNumbers;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class GeneticTests {
+
+    /** Random permutation with repetition of the jobs of the instance */
+    private static int[] individual(Instance instance, SplittableRandom random) {
+        int[] jobs = new int[instance.numOperations];
+        for(int i = 0 ; i < jobs.length ; i++)
+            jobs[i] = instance.jobOf(i);
+        for(int i = jobs.length - 1 ; i > 0 ; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = jobs[i];
+            jobs[i] = jobs[k];
+            jobs[k] = tmp;
+        }
+        return jobs;
+    }
+
+    /** Children of both crossovers are permutations with repetition of the jobs : each job appears once per task. */
+    @Test
+    public void testCrossoversArePermutations() throws IOException {
+        Instance rectangular = Instance.fromFile(Paths.get("instances/la21"));
+        Instance ragged = Instance.of(4,
+                new int[][] { { 0, 1, 2, 3 }, { 2, 0 }, { 3 }, { 1, 3, 0 } },
+                new int[][] { { 3, 2, 5, 1 }, { 4, 6 }, { 7 }, { 2, 2, 3 } });
+        SplittableRandom random = new SplittableRandom(0);
+        for(Instance instance : new Instance[] { rectangular, ragged }) {
+            GeneticSolver.Workspace ws = new GeneticSolver.Workspace(instance);
+            for(int k = 0 ; k < 200 ; k++) {
+                int[] p1 = individual(instance, random);
+                int[] p2 = individual(instance, random);
+                int[] child = new int[p1.length];
+                if(k % 2 == 0)
+                    GeneticSolver.gox(instance, p1, p2, child, random, ws);
+                else
+                    GeneticSolver.ppx(instance, p1, p2, child, random, ws);
+
+                int[] occurrences = new int[instance.numJobs];
+                for(int job : child)
+                    occurrences[job]++;
+                for(int j = 0 ; j < instance.numJobs ; j++)
+                    assert occurrences[j] == instance.numTasks(j);
+                for(boolean taken : ws.taken)
+                    assert !taken;
+
+                JobNumbers decoded = new JobNumbers(instance);
+                System.arraycopy(child, 0, decoded.jobs, 0, child.length);
+                decoded.nextToSet = child.length;
+                assert decoded.toSchedule().isValid();
+            }
+        }
+    }
+
+    /** With a budget of generations, the search only depends on the seed. */
+    @Test
+    public void testReproducible() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        for(GeneticSolver.Crossover crossover : GeneticSolver.Crossover.values()) {
+            GeneticSolver solver = new GeneticSolver(crossover, 50, 0.1, 16, 30, 1);
+            Result first = solver.solve(instance, Long.MAX_VALUE);
+            Result second = solver.solve(instance, Long.MAX_VALUE);
+            assert first.schedule.isValid();
+            assert first.schedule.makespan() == second.schedule.makespan();
+            assert first.cause == Result.ExitCause.Blocked;
+            assert first.stats.get("generations") == 30;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class LnsTests {
+
+    /** The exact sub-solver only reorders the free tasks, and never returns a worse solution. */
+    @Test
+    public void testReoptimizeWindows() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule);
+        Random random = new Random(0);
+        int found = 0;
+        for(int k = 0 ; k < 20 ; k++) {
+            int[] from = new int[instance.numMachines];
+            int[] to = new int[instance.numMachines];
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                from[m] = random.nextInt(instance.numJobs - 4);
+                to[m] = from[m] + 4;
+            }
+            ResourceOrder reoptimized = BranchAndBoundSolver.reoptimize(order, from, to, 100, Long.MAX_VALUE);
+            if(reoptimized == null)
+                continue;
+            found++;
+            assert reoptimized.makespan() <= order.makespan();
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                for(int i = 0 ; i < instance.numJobs ; i++) {
+                    if(i < from[m] || i >= to[m])
+                        assert reoptimized.tasksByMachine[m][i].equals(order.tasksByMachine[m][i]);
+                }
+            }
+            order = reoptimized;
+        }
+        assert found > 0;
+    }
+
+    @Test
+    public void testSolve() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        int greedy = new GreedySolver(Priority.EST_LRPT).solve(instance, -1).schedule.makespan();
+        for(int threads : new int[] {1, 2}) {
+            Result result = new LnsSolver(new GreedySolver(Priority.EST_LRPT), 3, 100, 4, threads, 0)
+                    .solve(instance, System.currentTimeMillis() + 500);
+            assert result.schedule.isValid();
+            assert result.schedule.makespan() < greedy;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package jobshop.solvers;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class OneMachineTests {
+
+    /** Value of a given sequence of jobs */
+    private static int value(int[] seq, int[] r, int[] p, int[] q) {
+        int t = 0;
+        int value = 0;
+        for(int j : seq) {
+            t = Math.max(t, r[j]) + p[j];
+            value = Math.max(value, t + q[j]);
+        }
+        return value;
+    }
+
+    /** Optimal value, by enumerating all permutations of the jobs */
+    private static int bruteForce(int[] seq, int k, int[] r, int[] p, int[] q) {
+        if(k == seq.length)
+            return value(seq, r, p, q);
+        int best = Integer.MAX_VALUE;
+        for(int i = k ; i < seq.length ; i++) {
+            int tmp = seq[k]; seq[k] = seq[i]; seq[i] = tmp;
+            best = Math.min(best, bruteForce(seq, k + 1, r, p, q));
+            tmp = seq[k]; seq[k] = seq[i]; seq[i] = tmp;
+        }
+        return best;
+    }
+
+    @Test
+    public void testCarlierExample() {
+        // example from Carlier (1982): Schrage gives 53 while the optimum is 50
+        int[] r = {10, 13, 11, 20, 30, 0, 30};
+        int[] p = {5, 6, 7, 4, 3, 6, 2};
+        int[] q = {7, 26, 24, 21, 8, 17, 0};
+        int[] seq = new int[7];
+
+        assert OneMachine.schrage(7, r, p, q, seq) == 53;
+        assert value(seq, r, p, q) == 53;
+        assert OneMachine.carlier(7, r, p, q, seq, Integer.MAX_VALUE) == 50;
+        assert value(seq, r, p, q) == 50;
+        assert OneMachine.preemptiveBound(7, r, p, q) <= 50;
+    }
+
+    /** When the machine waits for a release date, all the jobs released at that date are candidates. */
+    @Test
+    public void testSchrageSimultaneousReleases() {
+        int[] r = {0, 5, 5};
+        int[] p = {1, 1, 1};
+        int[] q = {0, 0, 10};
+        int[] seq = new int[3];
+
+        assert OneMachine.schrage(3, r, p, q, seq) == 16;
+        assert seq[1] == 2 && value(seq, r, p, q) == 16;
+    }
+
+    @Test
+    public void testAgainstBruteForce() {
+        Random random = new Random(0);
+        int n = 7;
+        for(int instance = 0 ; instance < 50 ; instance++) {
+            int[] r = new int[n];
+            int[] p = new int[n];
+            int[] q = new int[n];
+            int[] seq = new int[n];
+            for(int j = 0 ; j < n ; j++) {
+                r[j] = random.nextInt(40);
+                p[j] = 1 + random.nextInt(10);
+                q[j] = random.nextInt(40);
+                seq[j] = j;
+            }
+            int optimum = bruteForce(seq, 0, r, p, q);
+
+            assert OneMachine.preemptiveBound(n, r, p, q) <= optimum;
+            assert OneMachine.schrage(n, r, p, q, seq) >= optimum;
+            assert OneMachine.carlier(n, r, p, q, seq, Integer.MAX_VALUE) == optimum;
+            assert value(seq, r, p, q) == optimum;
+        }
+    }
+}
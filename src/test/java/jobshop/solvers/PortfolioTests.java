@@ -0,0 +1,107 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.neighborhoods.N5;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PortfolioTests {
+
+    /** The portfolio returns the best solution of its members and credits them for it. */
+    @Test
+    public void testBestOfMembers() throws IOException {
+        Map<String, Solver> members = new LinkedHashMap<>();
+        members.put("greedy", new GreedySolver(Priority.EST_LRPT));
+        members.put("descent", new DescentSolver(Priority.EST_LRPT));
+        members.put("taboo", new TabooSolver(10, 300));
+        PortfolioSolver portfolio = new PortfolioSolver(members);
+
+        for(String name : new String[] { "ft10", "la21" }) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = portfolio.solve(instance, System.currentTimeMillis() + 10000);
+            assert result.schedule.isValid();
+            int taboo = new TabooSolver(10, 300).solve(instance, System.currentTimeMillis() + 10000).schedule.makespan();
+            assert result.schedule.makespan() <= taboo;
+        }
+
+        List<PortfolioSolver.MemberStats> stats = portfolio.stats();
+        assert stats.size() == 3;
+        int wins = 0;
+        for(PortfolioSolver.MemberStats s : stats) {
+            assert s.solves == 2;
+            wins += s.wins;
+        }
+        assert wins == 2;
+        // the taboo search improves on the descent, that improves on the greedy solution
+        assert stats.get(2).improvements > 0;
+    }
+
+    /** A seeded portfolio reseeds its randomized members, and its members are credited to the original portfolio. */
+    @Test
+    public void testWithSeed() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        Map<String, Solver> members = new LinkedHashMap<>();
+        // a poor greedy solution, that the random member always beats
+        members.put("greedy", new GreedySolver(Priority.SPT));
+        members.put("random", new RandomSolver(0, 1, 500));
+        PortfolioSolver portfolio = new PortfolioSolver(members);
+        int first = portfolio.withSeed(1).solve(instance, Long.MAX_VALUE).schedule.makespan();
+        int again = portfolio.withSeed(1).solve(instance, Long.MAX_VALUE).schedule.makespan();
+        assert first == again;
+        // the random member alone, with both seeds
+        int random1 = new RandomSolver(1, 1, 500).solve(instance, Long.MAX_VALUE).schedule.makespan();
+        int random2 = new RandomSolver(2, 1, 500).solve(instance, Long.MAX_VALUE).schedule.makespan();
+        assert random1 != random2;
+        assert first == random1;
+        assert portfolio.withSeed(2).solve(instance, Long.MAX_VALUE).schedule.makespan() == random2;
+        for(PortfolioSolver.MemberStats s : portfolio.stats())
+            assert s.solves == 3;
+    }
+
+    /** All members stop as soon as the lower bound is reached. */
+    @Test
+    public void testStopsWhenOptimal() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la01"));
+        Map<String, Solver> members = new LinkedHashMap<>();
+        members.put("taboo", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 100));
+        members.put("descent", new DescentSolver(Priority.EST_LRPT));
+        long start = System.currentTimeMillis();
+        Result result = new PortfolioSolver(members).solve(instance, start + 60000);
+        assert result.schedule.makespan() == LowerBound.of(instance);
+        assert result.cause == Result.ExitCause.ProvedOptimal;
+        assert System.currentTimeMillis() - start < 30000;
+    }
+
+    /** The portfolio returns as soon as one member reaches the lower bound, without waiting for the deadline of the
+     * large neighborhood search nor of the members that cannot be asked to stop. */
+    @Test
+    public void testReturnsEarlyWhenOptimal() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la11"));
+        Map<String, Solver> members = new LinkedHashMap<>();
+        members.put("tabooElite", new TabooSolver(10, Integer.MAX_VALUE, new GreedySolver(Priority.EST_LRPT), new N5(), 8, 200));
+        members.put("lns", new LnsSolver(new GreedySolver(Priority.EST_LRPT), 3, 100, 1, 1, 0));
+        // a member that cannot be asked to stop, and only returns at its deadline
+        members.put("sleeper", (pb, deadline) -> {
+            try {
+                Thread.sleep(Math.max(0, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new GreedySolver(Priority.SPT).solve(pb, deadline);
+        });
+        long start = System.currentTimeMillis();
+        Result result = new PortfolioSolver(members).solve(instance, start + 5000);
+        assert result.schedule.makespan() == LowerBound.of(instance);
+        assert result.cause == Result.ExitCause.ProvedOptimal;
+        assert System.currentTimeMillis() - start < 2500;
+    }
+}
@@ -0,0 +1,27 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class RandomTests {
+
+    /** With a budget of samples, the result of a multi-threaded search only depends on the seed and on the number of
+     * threads, whatever the scheduling of the threads. */
+    @Test
+    public void testReproducible() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        Result first = new RandomSolver(7, 4, 2000).solve(instance, Long.MAX_VALUE);
+        for(int k = 0 ; k < 3 ; k++) {
+            Result again = new RandomSolver(7, 4, 2000).solve(instance, Long.MAX_VALUE);
+            assert again.schedule.makespan() == first.schedule.makespan();
+            assert again.stats.get("samples") == 2000;
+        }
+        assert first.cause == Result.ExitCause.Blocked;
+        Result other = new RandomSolver(8, 4, 2000).solve(instance, Long.MAX_VALUE);
+        assert other.schedule.makespan() != first.schedule.makespan();
+    }
+}
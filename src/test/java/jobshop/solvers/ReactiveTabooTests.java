@@ -0,0 +1,104 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.neighborhoods.N5;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ReactiveTabooTests {
+
+    /** The tenure grows when the search comes back to a solution, and shrinks back once it stops cycling. */
+    @Test
+    public void testTenureReactsToCycles() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+        ReactiveTenure tenure = new ReactiveTenure(instance, 10);
+        assert tenure.hash(order) == tenure.hash(order.copy());
+
+        assert !tenure.visit(order, 0);
+        assert tenure.tenure() == 10;
+        assert !tenure.visit(order, 4);
+        assert tenure.tenure() == 11;
+
+        // far enough from the last repetition, a new solution decreases the tenure
+        ResourceOrder other = order.copy();
+        other.swap(0, 0, 1);
+        assert tenure.hash(other) != tenure.hash(order);
+        assert !tenure.visit(other, 100);
+        assert tenure.tenure() < 11;
+    }
+
+    /** Past MAX_VISITS solutions, the first solutions reached are forgotten one by one, and a checkpoint restores
+     * the solutions remembered with their order. */
+    @Test
+    public void testOldestVisitsForgotten() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+        ReactiveTenure tenure = new ReactiveTenure(instance, 10);
+        Random random = new Random(0);
+        // hashes of distinct orders, each visited once (the orders need not be feasible)
+        Set<Long> seen = new HashSet<>();
+        List<Long> hashes = new ArrayList<>();
+        for(int iteration = 0 ; hashes.size() <= ReactiveTenure.MAX_VISITS + 1 ; iteration++) {
+            int m = random.nextInt(instance.numMachines);
+            int i = random.nextInt(instance.numJobs - 1);
+            order.swap(m, i, i + 1);
+            long hash = tenure.hash(order);
+            if(seen.add(hash)) {
+                if(hashes.size() <= ReactiveTenure.MAX_VISITS)
+                    assert !tenure.visit(order, iteration);
+                hashes.add(hash);
+            }
+        }
+        assert !tenure.remembers(hashes.get(0));
+        for(int k = 1 ; k <= ReactiveTenure.MAX_VISITS ; k++)
+            assert tenure.remembers(hashes.get(k));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tenure.write(new DataOutputStream(bytes));
+        ReactiveTenure restored = new ReactiveTenure(instance, 10);
+        restored.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for(int k = 1 ; k <= ReactiveTenure.MAX_VISITS ; k++)
+            assert restored.remembers(hashes.get(k));
+        // the last order was not visited : visiting it forgets the oldest solution remembered
+        assert !restored.remembers(hashes.get(ReactiveTenure.MAX_VISITS + 1));
+        assert !restored.visit(order, Integer.MAX_VALUE / 2);
+        assert !restored.remembers(hashes.get(1)) && restored.remembers(hashes.get(2));
+        assert restored.remembers(hashes.get(ReactiveTenure.MAX_VISITS + 1));
+    }
+
+    /** A reactive search does not stop when it is blocked : it runs until its maximal number of iterations, and finds
+     * better solutions than the plain taboo search with the same initial tenure. */
+    @Test
+    public void testReactiveSearch() throws IOException {
+        int plainTotal = 0;
+        int reactiveTotal = 0;
+        for(String name : new String[] {"ft10", "la21", "la24", "la27"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result plain = new TabooSolver(10, 5000, new GreedySolver(Priority.EST_LRPT), new N5(), 0, 0, false)
+                    .solve(instance, Long.MAX_VALUE);
+            Result reactive = new TabooSolver(10, 5000, new GreedySolver(Priority.EST_LRPT), new N5(), 0, 0, true)
+                    .solve(instance, Long.MAX_VALUE);
+            assert reactive.schedule.isValid();
+            // (Blocked is the cause of a search that used all its iterations)
+            assert reactive.cause == Result.ExitCause.Blocked || reactive.cause == Result.ExitCause.ProvedOptimal;
+            plainTotal += plain.schedule.makespan();
+            reactiveTotal += reactive.schedule.makespan();
+        }
+        assert reactiveTotal < plainTotal;
+    }
+}
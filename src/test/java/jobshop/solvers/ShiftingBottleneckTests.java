@@ -0,0 +1,31 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class ShiftingBottleneckTests {
+
+    /** At the deadline, the order is completed and returned at once, with the Timeout cause. */
+    @Test
+    public void testDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta71"));
+        // with a deadline already passed, the machines are all sequenced by heads
+        Result result = new ShiftingBottleneckSolver().solve(instance, System.currentTimeMillis());
+        assert result.schedule.isValid() && result.cause == Result.ExitCause.Timeout;
+
+        // a complete run takes much longer than this budget
+        long start = System.currentTimeMillis();
+        result = new ShiftingBottleneckSolver().solve(instance, start + 10);
+        assert System.currentTimeMillis() - start < 250 : System.currentTimeMillis() - start;
+        assert result.schedule.isValid();
+        assert result.cause == Result.ExitCause.Timeout;
+
+        instance = Instance.fromFile(Paths.get("instances/ft10"));
+        result = new ShiftingBottleneckSolver().solve(instance, Long.MAX_VALUE);
+        assert result.schedule.isValid() && result.cause == Result.ExitCause.Blocked;
+    }
+}
@@ -0,0 +1,60 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.Result;
+import jobshop.neighborhoods.N5;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TabooCheckpointTests {
+
+    private static TabooSolver solver(int maxIter, int eliteSize, boolean reactive) {
+        return new TabooSolver(10, maxIter, new GreedySolver(Priority.EST_LRPT), new N5(), eliteSize, 30, reactive);
+    }
+
+    /** A search interrupted and resumed from its checkpoint must end exactly as the uninterrupted one. */
+    @Test
+    public void testResumeIsIdentical() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        Path file = Files.createTempFile("taboo", ".ckpt");
+        // {eliteSize, reactive}
+        for(int[] mode : new int[][] {{0, 0}, {4, 0}, {0, 1}}) {
+            int eliteSize = mode[0];
+            boolean reactive = mode[1] == 1;
+            Result uninterrupted = solver(300, eliteSize, reactive).solve(instance, Long.MAX_VALUE);
+
+            TabooSolver interrupted = solver(120, eliteSize, reactive);
+            interrupted.checkpoint(file, Long.MAX_VALUE, false);
+            interrupted.solve(instance, Long.MAX_VALUE);
+
+            TabooSolver resumed = solver(300, eliteSize, reactive);
+            resumed.checkpoint(file, Long.MAX_VALUE, true);
+            Result result = resumed.solve(instance, Long.MAX_VALUE);
+
+            assert result.schedule.makespan() == uninterrupted.schedule.makespan();
+            assert result.cause == uninterrupted.cause;
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    assert result.schedule.startTime(j, t) == uninterrupted.schedule.startTime(j, t);
+                }
+            }
+        }
+
+        // a checkpoint cannot be resumed by a solver with another configuration
+        boolean rejected = false;
+        try {
+            TabooSolver other = new TabooSolver(5, 300);
+            other.checkpoint(file, Long.MAX_VALUE, true);
+            other.solve(instance, Long.MAX_VALUE);
+        } catch (RuntimeException e) {
+            rejected = true;
+        }
+        assert rejected;
+        Files.delete(file);
+    }
+}
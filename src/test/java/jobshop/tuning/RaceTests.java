@@ -0,0 +1,58 @@
+package jobshop.tuning;
+
+import jobshop.Instance;
+import jobshop.Priority;
+import jobshop.solvers.BasicSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.TabooSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RaceTests {
+
+    @Test
+    public void testQuantiles() {
+        assert Math.abs(Race.normalQuantile(0.975) - 1.959964) < 1e-5;
+        assert Math.abs(Race.normalQuantile(0.001) + 3.090232) < 1e-5;
+        assert Math.abs(Race.chiSquareQuantile(0.95, 4) - 9.4877) < 0.05;
+        assert Math.abs(Race.chiSquareQuantile(0.95, 29) - 42.557) < 0.05;
+        assert Math.abs(Race.studentQuantile(0.975, 20) - 2.0860) < 0.005;
+        assert Math.abs(Race.studentQuantile(0.975, 100) - 1.9840) < 0.005;
+    }
+
+    /** Configurations that are always ranked last are eliminated, ties are kept. */
+    @Test
+    public void testSurvivors() {
+        List<int[]> makespans = new ArrayList<>();
+        for(int i = 0 ; i < 6 ; i++)
+            makespans.add(new int[] { 100, 100, 120 + i, 150 });
+        List<Integer> survivors = Race.survivors(makespans, Arrays.asList(0, 1, 2, 3), 0.05);
+        assert survivors.equals(Arrays.asList(0, 1)) : survivors;
+        // no difference at all
+        makespans.clear();
+        for(int i = 0 ; i < 6 ; i++)
+            makespans.add(new int[] { 100, 100, 100 });
+        assert Race.survivors(makespans, Arrays.asList(0, 1, 2), 0.05).size() == 3;
+    }
+
+    @Test
+    public void testRace() throws IOException {
+        List<Instance> instances = new ArrayList<>();
+        for(String name : new String[] { "la01", "la06", "la11", "la16", "la21", "la26", "la31", "la36" })
+            instances.add(Instance.fromFile(Paths.get("instances/" + name)));
+        List<Configuration> configurations = Arrays.asList(
+                new Configuration("basic", BasicSolver::new),
+                new Configuration("greedySPT", () -> new GreedySolver(Priority.SPT)),
+                new Configuration("taboo", () -> new TabooSolver(10, 200)));
+        Race.Outcome outcome = new Race(configurations, instances, 60000, 2, 100, 0.05, 5, null).run();
+        assert outcome.best.name.equals("taboo");
+        assert outcome.survivors.size() < 3;
+        assert outcome.runs < 3 * instances.size();
+        assert outcome.relativeMakespan < 1;
+    }
+}